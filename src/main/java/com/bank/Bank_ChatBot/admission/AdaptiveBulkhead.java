@@ -0,0 +1,208 @@
+package com.bank.Bank_ChatBot.admission;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import com.bank.Bank_ChatBot.deadline.Deadline;
+import com.bank.Bank_ChatBot.deadline.DeadlineExceededException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Isolates one kind of downstream work (NLP calls, JDBC queries) behind its own concurrency
+ * limit. The limit is not a fixed pool size: it follows observed latency AIMD-style.
+ * While recent (smoothed) latency stays close to the best latency seen, it grows by ~1 per
+ * limit's worth of completions. When smoothed latency passes both {@code tolerance} x that
+ * baseline and baseline + {@code slack}, or a call fails, it shrinks by {@code backoff}. The
+ * slack keeps sub-millisecond jitter on fast queries from reading as congestion.
+ * A call cut short by its caller's own {@link Deadline}, or rejected by another bulkhead, says
+ * nothing about this dependency: it frees its slot but is neither a latency sample nor a failure.
+ * Callers over the limit wait in a short bounded queue, served in arrival order (a freed slot
+ * is handed to the oldest waiter, never taken by a newcomer); beyond that they are rejected at
+ * once. A caller with a request {@link Deadline} waits no longer than its remaining time.
+ */
+public class AdaptiveBulkhead {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final double tolerance;
+    private final long slackNanos;
+    private final double backoff;
+
+    /** What a finished call tells the limiter. */
+    enum Sample { SUCCESS, FAILURE, NONE }
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // guarded by lock
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long baselineNanos = Long.MAX_VALUE;
+    private double smoothedNanos = -1;
+    private int samplesSinceReset;
+    private int samplesSinceDecrease;
+
+    private final Counter rejected;
+
+    public AdaptiveBulkhead(String name, int initialLimit, int minLimit, int maxLimit,
+                            int maxQueue, long maxWaitMillis, double tolerance, long slackMillis,
+                            double backoff, MeterRegistry meters) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.tolerance = tolerance;
+        this.slackNanos = TimeUnit.MILLISECONDS.toNanos(slackMillis);
+        this.backoff = backoff;
+
+        Gauge.builder("chat.bulkhead.limit", this, AdaptiveBulkhead::getLimit).tag("name", name).register(meters);
+        Gauge.builder("chat.bulkhead.in_flight", this, AdaptiveBulkhead::getInFlight).tag("name", name).register(meters);
+        Gauge.builder("chat.bulkhead.queued", this, AdaptiveBulkhead::getQueued).tag("name", name).register(meters);
+        this.rejected = Counter.builder("chat.bulkhead.rejected").tag("name", name).register(meters);
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        acquire();
+        long start = System.nanoTime();
+        Sample sample = Sample.FAILURE;
+        try {
+            T result = work.get();
+            sample = Sample.SUCCESS;
+            return result;
+        } catch (DeadlineExceededException | BulkheadFullException ex) {
+            sample = Sample.NONE;
+            throw ex;
+        } finally {
+            release(System.nanoTime() - start, sample);
+        }
+    }
+
+    public String getName() { return name; }
+
+    public int getLimit() {
+        lock.lock();
+        try { return (int) limit; } finally { lock.unlock(); }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try { return inFlight; } finally { lock.unlock(); }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try { return waiters.size(); } finally { lock.unlock(); }
+    }
+
+    // ----------------------------- internals ------------------------------
+
+    /** A queued caller; {@code granted} is set (under the lock) when a slot is handed to it. */
+    private static final class Waiter {
+        final Condition turn;
+        boolean granted;
+
+        Waiter(Condition turn) { this.turn = turn; }
+    }
+
+    void acquire() {
+        Deadline deadline = Deadline.current();
+        if (deadline != null) deadline.check(name);
+        lock.lock();
+        try {
+            // nobody may overtake the queue, even when a slot happens to be free right now
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return;
+            }
+            if (waiters.size() >= maxQueue) throw reject("queue full");
+
+            Waiter me = new Waiter(lock.newCondition());
+            waiters.addLast(me);
+            boolean deadlineFirst = deadline != null && deadline.remainingNanos() < maxWaitNanos;
+            long remaining = deadlineFirst ? deadline.remainingNanos() : maxWaitNanos;
+            try {
+                while (!me.granted) {
+                    if (remaining <= 0) {
+                        waiters.remove(me);
+                        throw deadlineFirst ? deadline.cancel(name + ".queue") : reject("timed out waiting for a slot");
+                    }
+                    remaining = me.turn.awaitNanos(remaining);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                if (me.granted) {
+                    // handed a slot in the meantime: pass it on
+                    inFlight--;
+                    grant();
+                } else {
+                    waiters.remove(me);
+                }
+                throw reject("interrupted");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(long rttNanos, Sample sample) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (sample != Sample.NONE) adapt(rttNanos, sample == Sample.SUCCESS);
+            grant();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Hands free slots to the oldest waiters; the slot is counted as theirs before they wake. */
+    private void grant() {
+        while (inFlight < (int) limit && !waiters.isEmpty()) {
+            Waiter next = waiters.pollFirst();
+            next.granted = true;
+            inFlight++;
+            next.turn.signal();
+        }
+    }
+
+    private void adapt(long rttNanos, boolean ok) {
+        // let the baseline drift up now and then so it can follow a slower but healthy dependency
+        if (++samplesSinceReset >= 1000) {
+            baselineNanos = baselineNanos == Long.MAX_VALUE ? Long.MAX_VALUE : (long) (baselineNanos * 1.1);
+            samplesSinceReset = 0;
+        }
+        baselineNanos = Math.min(baselineNanos, rttNanos);
+        smoothedNanos = smoothedNanos < 0 ? rttNanos : smoothedNanos * 0.8 + rttNanos * 0.2;
+
+        boolean congested = smoothedNanos > baselineNanos * tolerance
+                && smoothedNanos > baselineNanos + slackNanos;
+        samplesSinceDecrease++;
+        if (!ok || congested) {
+            // at most one decrease per limit's worth of completions, so one slow burst isn't counted N times
+            if (samplesSinceDecrease >= (int) limit) {
+                limit = Math.max(minLimit, limit * backoff);
+                samplesSinceDecrease = 0;
+            }
+        } else if (inFlight + 1 >= (int) limit / 2) {
+            // only grow while the limit is actually being used
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private BulkheadFullException reject(String reason) {
+        rejected.increment();
+        return new BulkheadFullException(name, reason);
+    }
+}
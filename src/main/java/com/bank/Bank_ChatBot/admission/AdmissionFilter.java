@@ -0,0 +1,87 @@
+package com.bank.Bank_ChatBot.admission;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.bank.Bank_ChatBot.admission.AdmissionService.Permit;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/** Admission in front of ChatController and CustomerController; rejects with a fast 429. */
+@Component
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private final AdmissionService admission;
+
+    public AdmissionFilter(AdmissionService admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.equals("/chat") || path.startsWith("/chat/") || path.startsWith("/api/customers"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Permit permit = admission.tryAcquire(request.getHeader(API_KEY_HEADER), request.getRemoteAddr());
+        if (!permit.admitted()) {
+            reject(response, permit);
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Mono / SSE replies finish after this thread returns; hold the slot until then
+                async = true;
+                request.getAsyncContext().addListener(new ReleaseOnComplete(permit));
+            }
+        } finally {
+            if (!async) admission.release(permit);
+        }
+    }
+
+    private void reject(HttpServletResponse response, Permit permit) throws IOException {
+        boolean shed = permit.outcome() == AdmissionService.Outcome.OVERLOADED;
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, (permit.retryAfterMillis() + 999) / 1000)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(shed
+                ? "{\"reply\":\"We're busy right now. Please try again shortly.\",\"data\":{\"error\":\"Overloaded\"}}"
+                : "{\"reply\":\"Too many requests. Please slow down.\",\"data\":{\"error\":\"RateLimited\"}}");
+    }
+
+    private final class ReleaseOnComplete implements AsyncListener {
+        private final Permit permit;
+        private boolean released;
+
+        ReleaseOnComplete(Permit permit) { this.permit = permit; }
+
+        private synchronized void release() {
+            if (released) return;
+            released = true;
+            admission.release(permit);
+        }
+
+        @Override public void onComplete(AsyncEvent event) { release(); }
+        @Override public void onTimeout(AsyncEvent event) { release(); }
+        @Override public void onError(AsyncEvent event) { release(); }
+        @Override public void onStartAsync(AsyncEvent event) { }
+    }
+}
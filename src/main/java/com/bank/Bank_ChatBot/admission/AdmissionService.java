@@ -0,0 +1,208 @@
+package com.bank.Bank_ChatBot.admission;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Request admission for the chat and customer APIs: a token bucket per API key, plus a global
+ * in-flight cap that sheds load before the NLP service and DB pool queue up.
+ *
+ * Requests without an API key are bucketed by client address instead, so one noisy keyless
+ * client doesn't throttle every other one.
+ *
+ * Buckets are lock-free (one CAS) and so is finding one: the key -> bucket map is a
+ * ConcurrentHashMap holding about bank.admission.max-keys keys. Only a first-seen key touches
+ * more than a get: it takes a token from a shared new-key bucket
+ * (bank.admission.new-keys-per-second), so a client that rotates keys can't mint fresh full
+ * buckets, and when the map is full it triggers a sweep of idle buckets (at most one per
+ * second). Past the new-key rate, and when the map is full of busy keys, unknown keys share
+ * the single "overflow" bucket.
+ *
+ * Metrics are per bounded tag, never per raw key: a fingerprint for each bank.admission.known-keys
+ * entry, "anonymous" for every client address, "overflow", and "other" for every remaining key.
+ */
+@Service
+public class AdmissionService {
+
+    public enum Outcome { ADMITTED, RATE_LIMITED, OVERLOADED }
+
+    /** Result of {@link #tryAcquire}; an admitted permit must be {@link #release released}. */
+    public record Permit(Outcome outcome, long retryAfterMillis) {
+        public boolean admitted() { return outcome == Outcome.ADMITTED; }
+    }
+
+    static final String ANONYMOUS = "anonymous";
+    static final String OVERFLOW = "overflow";
+    static final String OTHER = "other";
+
+    private static final String ADDRESS_PREFIX = "addr:";
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final double ratePerSecond;
+    private final int burst;
+    private final int maxInFlight;
+    private final int maxKeys;
+
+    private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt;
+    private final Tenant overflow;
+    private final TokenBucket newKeys;
+    private final Map<String, Meters> meters = new HashMap<>();
+    private final Set<String> knownKeys;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AdmissionService(MeterRegistry registry,
+                            @Value("${bank.admission.enabled:true}") boolean enabled,
+                            @Value("${bank.admission.rate-per-second:10}") double ratePerSecond,
+                            @Value("${bank.admission.burst:20}") int burst,
+                            @Value("${bank.admission.max-in-flight:256}") int maxInFlight,
+                            @Value("${bank.admission.max-keys:10000}") int maxKeys,
+                            @Value("${bank.admission.new-keys-per-second:5}") double newKeysPerSecond,
+                            @Value("${bank.admission.known-keys:}") List<String> knownKeys) {
+        this.enabled = enabled;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.maxInFlight = maxInFlight;
+        this.maxKeys = Math.max(1, maxKeys);
+        long now = System.nanoTime();
+        this.nextSweepAt = new AtomicLong(now);
+        this.newKeys = new TokenBucket(newKeysPerSecond, (int) Math.max(1, Math.ceil(newKeysPerSecond * 10)), now);
+
+        this.knownKeys = new HashSet<>();
+        for (String k : knownKeys) {
+            if (k != null && !k.isBlank()) this.knownKeys.add(k.trim());
+        }
+        for (String k : this.knownKeys) meters.put(k, new Meters(fingerprint(k), registry));
+        for (String tag : List.of(ANONYMOUS, OVERFLOW, OTHER)) meters.put(tag, new Meters(tag, registry));
+        this.overflow = new Tenant(meters.get(OVERFLOW), now);
+
+        Gauge.builder("chat.admission.in_flight", inFlight, AtomicInteger::get)
+                .description("Requests currently admitted and not yet completed")
+                .register(registry);
+        Gauge.builder("chat.admission.keys", this, AdmissionService::trackedKeys)
+                .description("API keys with their own bucket")
+                .register(registry);
+    }
+
+    public Permit tryAcquire(String apiKey) {
+        return tryAcquire(apiKey, null);
+    }
+
+    /** {@code clientAddress} keys the bucket when there is no API key; null if unknown. */
+    public Permit tryAcquire(String apiKey, String clientAddress) {
+        if (!enabled) return new Permit(Outcome.ADMITTED, 0);
+
+        long now = System.nanoTime();
+        Tenant t = tenant(key(apiKey, clientAddress), now);
+
+        // shed first: when the whole service is saturated, even a tenant with tokens waits its turn
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            t.meters.shed.increment();
+            return new Permit(Outcome.OVERLOADED, 1000);
+        }
+        if (!t.bucket.tryAcquire(now)) {
+            inFlight.decrementAndGet();
+            t.meters.limited.increment();
+            long wait = TimeUnit.NANOSECONDS.toMillis(t.bucket.nanosUntilNextToken(now));
+            return new Permit(Outcome.RATE_LIMITED, Math.max(1, wait));
+        }
+        t.meters.admitted.increment();
+        return new Permit(Outcome.ADMITTED, 0);
+    }
+
+    public void release(Permit permit) {
+        if (enabled && permit.admitted()) inFlight.decrementAndGet();
+    }
+
+    public int trackedKeys() {
+        return tenants.size();
+    }
+
+    // ----------------------------- Helpers ------------------------------
+
+    private static String key(String apiKey, String clientAddress) {
+        if (apiKey != null && !apiKey.isBlank()) return apiKey.trim();
+        return clientAddress == null || clientAddress.isBlank() ? ANONYMOUS : ADDRESS_PREFIX + clientAddress;
+    }
+
+    private Tenant tenant(String key, long now) {
+        Tenant t = tenants.get(key);
+        if (t != null) return t;
+
+        // first sight of this key: the only path that may sweep or allocate
+        if (tenants.size() >= maxKeys && (!sweep(now) || tenants.size() >= maxKeys)) return overflow;
+        if (!key.equals(ANONYMOUS) && !knownKeys.contains(key) && !newKeys.tryAcquire(now)) return overflow;
+
+        Tenant fresh = new Tenant(meters(key), now);
+        t = tenants.putIfAbsent(key, fresh);
+        return t != null ? t : fresh;
+    }
+
+    /** Drops idle buckets (a full bucket carries no state); false if another sweep ran within the last second. */
+    private boolean sweep(long now) {
+        long due = nextSweepAt.get();
+        if (now - due < 0 || !nextSweepAt.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) return false;
+        tenants.values().removeIf(t -> t.bucket.isIdle(now));
+        return true;
+    }
+
+    private Meters meters(String key) {
+        if (key.startsWith(ADDRESS_PREFIX)) return meters.get(ANONYMOUS);
+        return meters.getOrDefault(key, meters.get(OTHER));
+    }
+
+    /** Metric tag for a key: never the raw secret. */
+    private static String fingerprint(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return "key-" + HexFormat.of().formatHex(digest, 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final class Tenant {
+        final TokenBucket bucket;
+        final Meters meters;
+
+        Tenant(Meters meters, long now) {
+            this.bucket = new TokenBucket(ratePerSecond, burst, now);
+            this.meters = meters;
+        }
+    }
+
+    /** One set per tag, registered once; tenants sharing a tag share the counters. */
+    private record Meters(Counter admitted, Counter limited, Counter shed) {
+        Meters(String tag, MeterRegistry registry) {
+            this(counter(tag, "admitted", registry), counter(tag, "rate_limited", registry), counter(tag, "shed", registry));
+        }
+
+        private static Counter counter(String tag, String outcome, MeterRegistry registry) {
+            return Counter.builder("chat.admission.requests")
+                    .description("Admission decisions per API key")
+                    .tag("key", tag)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.bank.Bank_ChatBot.admission;
+
+/** Thrown when a bulkhead has no free slot and its wait queue is full or timed out. */
+public class BulkheadFullException extends RuntimeException {
+
+    private final String bulkhead;
+
+    public BulkheadFullException(String bulkhead, String reason) {
+        // no stack trace: rejections are expected under load and must stay cheap
+        super("Bulkhead '" + bulkhead + "' rejected the call: " + reason, null, false, false);
+        this.bulkhead = bulkhead;
+    }
+
+    public String getBulkhead() { return bulkhead; }
+}
@@ -0,0 +1,40 @@
+package com.bank.Bank_ChatBot.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: instead of a token count plus a refill timestamp,
+ * a single "theoretical arrival time" is advanced with CAS, so there is one atomic per bucket
+ * and no refill thread. Behaves like a bucket of {@code burst} tokens refilled at {@code ratePerSecond}.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;   // time to earn one token
+    private final long toleranceNanos;  // how far ahead of "now" the TAT may run (burst - 1 tokens)
+    private final AtomicLong tat;
+
+    TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.tat = new AtomicLong(nowNanos);
+    }
+
+    boolean tryAcquire(long nowNanos) {
+        for (;;) {
+            long current = tat.get();
+            long base = Math.max(current, nowNanos);
+            if (base - nowNanos > toleranceNanos) return false;
+            if (tat.compareAndSet(current, base + intervalNanos)) return true;
+        }
+    }
+
+    /** Nanos until the next token, 0 if one is available now. */
+    long nanosUntilNextToken(long nowNanos) {
+        return Math.max(0L, tat.get() - toleranceNanos - nowNanos);
+    }
+
+    /** True when the bucket is full again, i.e. dropping it loses no state. */
+    boolean isIdle(long nowNanos) {
+        return tat.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,102 @@
+package com.bank.Bank_ChatBot.analytics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inclusive day range named in a chat message ("last month", "this year", "last 90 days", ...).
+ * {@link #parse} falls back to the last 30 days, or to the given fallback, when no period is mentioned.
+ *
+ * "last/previous month" is the previous calendar month; "past month" and "last 1 month" are the
+ * month up to today. A count below 1 ("last 0 days") is read as 1. Nothing caps the count here
+ * ("last 999 years" parses); callers check {@link #exceedsMaxSpan} before loading the period.
+ */
+public record DateRange(LocalDate from, LocalDate to, String label) {
+
+    /** Longest period the chat will aggregate, in years. */
+    public static final int MAX_YEARS = 5;
+
+    private static final Pattern LAST_N = Pattern.compile("\\b(?:last|past)\\s+(\\d{1,3})\\s+(day|week|month|year)s?\\b");
+    private static final Pattern PAST = Pattern.compile("\\bpast\\s+(day|week|month|year)\\b");
+    private static final Pattern RELATIVE = Pattern.compile("\\b(this|last|previous)\\s+(week|month|year)\\b");
+    private static final Pattern YEAR = Pattern.compile("\\bin\\s+((?:19|20)\\d{2})\\b");
+
+    public static DateRange parse(String text, LocalDate today) {
+        return parse(text, today, lastDays(today, 30));
+    }
+
+    public static DateRange parse(String text, LocalDate today, DateRange fallback) {
+        String t = text == null ? "" : text.toLowerCase(Locale.ROOT);
+
+        Matcher m = LAST_N.matcher(t);
+        if (m.find()) return rolling(today, Math.max(1, Integer.parseInt(m.group(1))), m.group(2));
+        m = PAST.matcher(t);
+        if (m.find()) return rolling(today, 1, m.group(1));
+
+        m = RELATIVE.matcher(t);
+        if (m.find()) {
+            boolean current = m.group(1).equals("this");
+            return switch (m.group(2)) {
+                case "week" -> {
+                    LocalDate start = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                    yield current ? new DateRange(start, today, "this week")
+                                  : new DateRange(start.minusWeeks(1), start.minusDays(1), "last week");
+                }
+                case "month" -> {
+                    LocalDate start = today.withDayOfMonth(1);
+                    yield current ? new DateRange(start, today, "this month")
+                                  : new DateRange(start.minusMonths(1), start.minusDays(1), "last month");
+                }
+                default -> {
+                    LocalDate start = today.withDayOfYear(1);
+                    yield current ? new DateRange(start, today, "this year")
+                                  : new DateRange(start.minusYears(1), start.minusDays(1), "last year");
+                }
+            };
+        }
+
+        if (t.contains("yesterday")) return new DateRange(today.minusDays(1), today.minusDays(1), "yesterday");
+        if (t.contains("today")) return new DateRange(today, today, "today");
+
+        m = YEAR.matcher(t);
+        if (m.find()) {
+            int year = Integer.parseInt(m.group(1));
+            return new DateRange(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31), "in " + year);
+        }
+
+        return fallback;
+    }
+
+    // n units back from today, today included
+    private static DateRange rolling(LocalDate today, int n, String unit) {
+        LocalDate from = switch (unit) {
+            case "day" -> today.minusDays(n - 1L);
+            case "week" -> today.minusWeeks(n).plusDays(1);
+            case "month" -> today.minusMonths(n).plusDays(1);
+            default -> today.minusYears(n).plusDays(1);
+        };
+        return new DateRange(from, today, "in the last " + n + " " + unit + (n == 1 ? "" : "s"));
+    }
+
+    public static DateRange lastDays(LocalDate today, int n) {
+        return new DateRange(today.minusDays(n - 1L), today, "in the last " + n + " days");
+    }
+
+    /** The current month and the {@code n - 1} before it, whole months. */
+    public static DateRange lastMonths(LocalDate today, int n) {
+        return new DateRange(today.withDayOfMonth(1).minusMonths(n - 1L), today, "in the last " + n + " months");
+    }
+
+    /** Longer than {@link #MAX_YEARS} years; "last 5 years" is still within. */
+    public boolean exceedsMaxSpan() {
+        return from.isBefore(to.minusYears(MAX_YEARS).plusDays(1));
+    }
+
+    int fromDay() { return (int) from.toEpochDay(); }
+
+    int toDay() { return (int) to.toEpochDay(); }
+}
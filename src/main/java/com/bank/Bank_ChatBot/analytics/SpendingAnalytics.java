@@ -0,0 +1,336 @@
+package com.bank.Bank_ChatBot.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.Bank_ChatBot.admission.AdaptiveBulkhead;
+import com.bank.Bank_ChatBot.deadline.Deadline;
+import com.bank.Bank_ChatBot.query.NamedQuery;
+import com.bank.Bank_ChatBot.query.QueryRegistry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Aggregate questions over a customer's transaction history ("how much did I spend on groceries
+ * last month", "top 5 expenses this year", "spending by month") answered from memory.
+ *
+ * The first question about a customer loads all their transactions once, from the primary, into
+ * a {@link TransactionColumns} store; later questions are a binary search and a loop over
+ * primitive arrays. Stores are kept for the most recently asked bank.analytics.max-customers
+ * customers (LRU). {@link SpendingAnalyticsListener} applies committed JPA writes to cached
+ * stores; a load that raced with a write for the same customer is answered but not cached.
+ * Concurrent first questions about one customer share a single load.
+ *
+ * A history longer than bank.analytics.max-transactions is not cached: each question about that
+ * customer loads only the period it asks about, and a period over the limit is refused with
+ * {@link TooManyTransactionsException}.
+ *
+ * Metrics: chat.analytics.lookups{result=hit|miss|coalesced|oversized}, chat.analytics.evictions,
+ * chat.analytics.customers.
+ */
+@Service
+public class SpendingAnalytics {
+
+    private final AdaptiveBulkhead db;
+    private final NamedQuery<TxRow> customerTransactions;
+    private final NamedQuery<TxRow> customerTransactionsBetween;
+    private final int maxCustomers;
+    private final int maxTransactions;
+
+    private final Map<Integer, TransactionColumns> cache;
+    // customers over maxTransactions, so their full history isn't read again per question; LRU as well
+    private final Map<Integer, Boolean> oversized;
+    // one load per customer at a time; later callers wait for it
+    private final ConcurrentHashMap<Integer, CompletableFuture<TransactionColumns>> loading = new ConcurrentHashMap<>();
+    // bumped on every committed write, striped by customer id; see load()
+    private final AtomicLongArray versions = new AtomicLongArray(256);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter oversizedLookups;
+    private final Counter evictions;
+
+    public SpendingAnalytics(QueryRegistry queries,
+                             @Qualifier("dbBulkhead") AdaptiveBulkhead db,
+                             MeterRegistry meters,
+                             @Value("${bank.analytics.max-customers:10000}") int maxCustomers,
+                             @Value("${bank.analytics.max-transactions:250000}") int maxTransactions) {
+        this.db = db;
+        this.maxCustomers = maxCustomers;
+        this.maxTransactions = maxTransactions;
+        this.customerTransactions = queries.register("analytics.customer-transactions", """
+            SELECT t.transaction_id, t.transaction_date, t.amount, t.type, t.description
+            FROM transactions t
+            JOIN accounts a ON a.account_id = t.account_id
+            WHERE a.customer_id = ?
+            ORDER BY t.transaction_date
+        """, (rs, i) -> new TxRow(rs.getInt(1), rs.getTimestamp(2), rs.getBigDecimal(3),
+                rs.getString(4), rs.getString(5)), 1000, 10);
+        this.customerTransactionsBetween = queries.register("analytics.customer-transactions-between", """
+            SELECT t.transaction_id, t.transaction_date, t.amount, t.type, t.description
+            FROM transactions t
+            JOIN accounts a ON a.account_id = t.account_id
+            WHERE a.customer_id = ? AND t.transaction_date >= ? AND t.transaction_date < ?
+            ORDER BY t.transaction_date
+        """, (rs, i) -> new TxRow(rs.getInt(1), rs.getTimestamp(2), rs.getBigDecimal(3),
+                rs.getString(4), rs.getString(5)), 1000, 10);
+
+        this.hits = Counter.builder("chat.analytics.lookups").tag("result", "hit").register(meters);
+        this.misses = Counter.builder("chat.analytics.lookups").tag("result", "miss").register(meters);
+        this.coalesced = Counter.builder("chat.analytics.lookups").tag("result", "coalesced").register(meters);
+        this.oversizedLookups = Counter.builder("chat.analytics.lookups").tag("result", "oversized").register(meters);
+        this.evictions = Counter.builder("chat.analytics.evictions").register(meters);
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, TransactionColumns> eldest) {
+                if (size() <= SpendingAnalytics.this.maxCustomers) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+        this.oversized = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Boolean> eldest) {
+                return size() > SpendingAnalytics.this.maxCustomers;
+            }
+        };
+        meters.gauge("chat.analytics.customers", this, SpendingAnalytics::cachedCustomers);
+    }
+
+    // ----------------------------- queries ------------------------------
+
+    /** Sum and count of the matching transactions in the range. */
+    public Totals total(Integer customerId, DateRange range, Filter filter) {
+        return columns(customerId, range).total(range.fromDay(), range.toDay(), filter);
+    }
+
+    /** The {@code n} descriptions with the largest totals in the range. */
+    public List<Group> top(Integer customerId, DateRange range, Filter filter, int n) {
+        return columns(customerId, range).topDescriptions(range.fromDay(), range.toDay(), filter, n);
+    }
+
+    /** One group per calendar month of the range (yyyy-MM), empty months included. */
+    public List<Group> byMonth(Integer customerId, DateRange range, Filter filter) {
+        return columns(customerId, range).byMonth(range.fromDay(), range.toDay(), filter);
+    }
+
+    public int cachedCustomers() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public void invalidate(Integer customerId) {
+        versions.incrementAndGet(stripe(customerId));
+        synchronized (cache) {
+            cache.remove(customerId);
+            oversized.remove(customerId);
+        }
+    }
+
+    // ----------------------------- incremental updates ------------------------------
+
+    /** Applies an inserted or updated transaction once the surrounding transaction commits. */
+    public void upsertAfterCommit(Integer customerId, int transactionId, LocalDate date,
+                                  BigDecimal amount, String type, String description) {
+        if (customerId == null) return;
+        afterCommit(() -> {
+            TransactionColumns store = written(customerId);
+            if (store == null) return;
+            if (date == null) store.remove(transactionId);
+            else store.upsert(transactionId, (int) date.toEpochDay(), cents(amount), type, description);
+        });
+    }
+
+    /** Drops a deleted transaction once the surrounding transaction commits. */
+    public void removeAfterCommit(Integer customerId, int transactionId) {
+        if (customerId == null) return;
+        afterCommit(() -> {
+            TransactionColumns store = written(customerId);
+            if (store != null) store.remove(transactionId);
+        });
+    }
+
+    // the version bump comes first: a load in flight for this customer then won't be cached,
+    // and a store cached before the bump is returned here and updated
+    private TransactionColumns written(Integer customerId) {
+        versions.incrementAndGet(stripe(customerId));
+        synchronized (cache) {
+            return cache.get(customerId);
+        }
+    }
+
+    private static void afterCommit(Runnable apply) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    // ----------------------------- loading ------------------------------
+
+    private TransactionColumns columns(Integer customerId, DateRange range) {
+        TransactionColumns store = store(customerId);
+        return store != null ? store : loadBetween(customerId, range);
+    }
+
+    /** The customer's cached history, loading it on a miss; null if it is over maxTransactions. */
+    private TransactionColumns store(Integer customerId) {
+        synchronized (cache) {
+            TransactionColumns store = cache.get(customerId);
+            if (store != null) {
+                hits.increment();
+                return store;
+            }
+            if (oversized.get(customerId) != null) {
+                oversizedLookups.increment();
+                return null;
+            }
+        }
+        CompletableFuture<TransactionColumns> mine = new CompletableFuture<>();
+        CompletableFuture<TransactionColumns> running = loading.putIfAbsent(customerId, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        misses.increment();
+        try {
+            TransactionColumns loaded = load(customerId);
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);   // waiters get the same failure (rejection, deadline, ...)
+            throw ex;
+        } finally {
+            loading.remove(customerId, mine);
+        }
+    }
+
+    private TransactionColumns load(Integer customerId) {
+        int stripe = stripe(customerId);
+        long version = versions.get(stripe);
+
+        // primary, not a replica: a lagging replica would be cached and then patched
+        // by listener updates it hasn't seen the base rows of
+        TransactionColumns columns = read(customerTransactions, customerId);
+        if (columns == null) {
+            System.out.println("⚠️ Analytics: customer " + customerId + " has over " + maxTransactions
+                    + " transactions; answering per period without caching");
+            synchronized (cache) {
+                oversized.put(customerId, Boolean.TRUE);
+            }
+            return null;
+        }
+
+        synchronized (cache) {
+            TransactionColumns raced = cache.get(customerId);
+            if (raced != null) return raced;
+            if (versions.get(stripe) == version) cache.put(customerId, columns);
+        }
+        return columns;
+    }
+
+    // only the asked period, for a customer whose full history is too long to keep
+    private TransactionColumns loadBetween(Integer customerId, DateRange range) {
+        TransactionColumns columns = read(customerTransactionsBetween, customerId,
+                Timestamp.valueOf(range.from().atStartOfDay()), Timestamp.valueOf(range.to().plusDays(1).atStartOfDay()));
+        if (columns == null) throw new TooManyTransactionsException(customerId, maxTransactions);
+        return columns;
+    }
+
+    // null when the query has more than maxTransactions rows
+    private TransactionColumns read(NamedQuery<TxRow> query, Object... args) {
+        TransactionColumns columns = new TransactionColumns(64);
+        int[] rows = {0};
+        db.execute(() -> {
+            query.forEachUpTo(maxTransactions + 1, t -> {
+                if (++rows[0] > maxTransactions || t.date() == null) return;
+                columns.appendSorted(t.id(), (int) t.date().toLocalDateTime().toLocalDate().toEpochDay(),
+                        cents(t.amount()), t.type(), t.description());
+            }, args);
+            return null;
+        });
+        return rows[0] > maxTransactions ? null : columns;
+    }
+
+    private static TransactionColumns await(CompletableFuture<TransactionColumns> running) {
+        Deadline deadline = Deadline.current();
+        try {
+            return deadline == null ? running.get() : running.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw deadline.cancel("analytics");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException r) throw r;
+            if (ex.getCause() instanceof Error e) throw e;
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a transaction load", ex);
+        }
+    }
+
+    private static int stripe(Integer customerId) {
+        return customerId & 255;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private record TxRow(int id, Timestamp date, BigDecimal amount, String type, String description) {}
+
+    // ----------------------------- types ------------------------------
+
+    /** Debits are stored as negative amounts, credits as positive. */
+    public enum Direction { ANY, DEBIT, CREDIT }
+
+    /** Which transactions count: direction, exact type (case-insensitive) and description keyword; null = any. */
+    public record Filter(Direction direction, String type, String keyword) {
+        public static Filter spending(String keyword) {
+            return new Filter(Direction.DEBIT, null, keyword);
+        }
+
+        public static Filter ofType(String type) {
+            return new Filter(Direction.ANY, type, null);
+        }
+    }
+
+    /** Signed total in cents. */
+    public record Totals(long cents, int count) {
+        public BigDecimal amount() {
+            return BigDecimal.valueOf(cents, 2);
+        }
+    }
+
+    /** A labelled subtotal: a description for {@link #top}, a yyyy-MM month for {@link #byMonth}. */
+    public record Group(String label, long cents, int count) {
+        public BigDecimal amount() {
+            return BigDecimal.valueOf(cents, 2);
+        }
+    }
+}
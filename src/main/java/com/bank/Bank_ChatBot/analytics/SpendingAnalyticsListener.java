@@ -0,0 +1,47 @@
+package com.bank.Bank_ChatBot.analytics;
+
+import java.math.BigDecimal;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.bank.Bank_ChatBot.entities.Account;
+import com.bank.Bank_ChatBot.entities.Transaction;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA write hook for {@link SpendingAnalytics}: keeps cached column stores in step with
+ * transaction inserts, updates and deletes. Looked up lazily, like CustomerSummaryListener.
+ */
+public class SpendingAnalyticsListener {
+
+    private final ObjectProvider<SpendingAnalytics> analytics;
+
+    public SpendingAnalyticsListener(ObjectProvider<SpendingAnalytics> analytics) {
+        this.analytics = analytics;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(Transaction t) {
+        Integer customerId = customerOf(t);
+        if (customerId == null || t.getId() == null) return;
+        analytics.getObject().upsertAfterCommit(customerId, t.getId(),
+                t.getTimestamp() == null ? null : t.getTimestamp().toLocalDate(),
+                t.getAmount() == null ? null : BigDecimal.valueOf(t.getAmount()),
+                t.getType(), t.getDescription());
+    }
+
+    @PostRemove
+    public void onRemove(Transaction t) {
+        Integer customerId = customerOf(t);
+        if (customerId != null && t.getId() != null) analytics.getObject().removeAfterCommit(customerId, t.getId());
+    }
+
+    private static Integer customerOf(Transaction t) {
+        Account a = t.getAccount();
+        return a == null || a.getCustomer() == null ? null : a.getCustomer().getId();
+    }
+}
@@ -0,0 +1,14 @@
+package com.bank.Bank_ChatBot.analytics;
+
+/** A period holds more transactions than bank.analytics.max-transactions allows to aggregate in memory. */
+public class TooManyTransactionsException extends RuntimeException {
+
+    private final Integer customerId;
+
+    public TooManyTransactionsException(Integer customerId, int limit) {
+        super("Customer " + customerId + " has more than " + limit + " transactions in the requested period", null, false, false);
+        this.customerId = customerId;
+    }
+
+    public Integer getCustomerId() { return customerId; }
+}
@@ -0,0 +1,289 @@
+package com.bank.Bank_ChatBot.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Direction;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Filter;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Group;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Totals;
+
+/**
+ * One customer's transactions as parallel primitive arrays, sorted by day:
+ *
+ *   ids     int    transaction_id (for incremental update / remove)
+ *   days    int    epoch day of transaction_date
+ *   cents   long   signed amount in cents (debits negative)
+ *   types   byte   id into this customer's type dictionary (DEPOSIT, WITHDRAWAL, ...)
+ *   descs   int    id into this customer's description dictionary
+ *
+ * About 21 bytes per transaction. A period is two binary searches; sums, counts and groupings
+ * are straight loops over the slice. Readers share a read lock, updates take the write lock.
+ */
+final class TransactionColumns {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private int[] ids;
+    private int[] days;
+    private long[] cents;
+    private byte[] types;
+    private int[] descs;
+
+    private final List<String> typeNames = new ArrayList<>();
+    private final List<String> descNames = new ArrayList<>();
+    private final List<String> descLower = new ArrayList<>();
+    private final Map<String, Integer> descIndex = new HashMap<>();
+
+    TransactionColumns(int capacity) {
+        int c = Math.max(capacity, 8);
+        ids = new int[c];
+        days = new int[c];
+        cents = new long[c];
+        types = new byte[c];
+        descs = new int[c];
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try { return size; } finally { lock.readLock().unlock(); }
+    }
+
+    /** Bulk load in day order, single-threaded before the store is published. */
+    void appendSorted(int id, int day, long amountCents, String type, String description) {
+        if (size > 0 && day < days[size - 1]) {
+            insert(id, day, amountCents, type, description);
+            return;
+        }
+        grow();
+        set(size++, id, day, amountCents, type, description);
+    }
+
+    /** Insert or replace by transaction id. */
+    void upsert(int id, int day, long amountCents, String type, String description) {
+        lock.writeLock().lock();
+        try {
+            removeAt(indexOf(id));
+            insert(id, day, amountCents, type, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeAt(indexOf(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Totals total(int fromDay, int toDay, Filter f) {
+        lock.readLock().lock();
+        try {
+            int lo = lowerBound(fromDay), hi = lowerBound(toDay + 1);
+            int type = typeId(f);
+            BitSet descOk = descMatches(f);
+            long sum = 0;
+            int count = 0;
+            for (int i = lo; i < hi; i++) {
+                if (matches(i, f, type, descOk)) {
+                    sum += cents[i];
+                    count++;
+                }
+            }
+            return new Totals(sum, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Descriptions with the largest absolute totals in the period. */
+    List<Group> topDescriptions(int fromDay, int toDay, Filter f, int n) {
+        lock.readLock().lock();
+        try {
+            int lo = lowerBound(fromDay), hi = lowerBound(toDay + 1);
+            int type = typeId(f);
+            BitSet descOk = descMatches(f);
+            long[] sums = new long[descNames.size()];
+            int[] counts = new int[descNames.size()];
+            for (int i = lo; i < hi; i++) {
+                if (matches(i, f, type, descOk)) {
+                    sums[descs[i]] += cents[i];
+                    counts[descs[i]]++;
+                }
+            }
+            // partial selection: n is small
+            List<Group> top = new ArrayList<>(n);
+            boolean[] taken = new boolean[sums.length];
+            for (int k = 0; k < n; k++) {
+                int best = -1;
+                for (int d = 0; d < sums.length; d++) {
+                    if (taken[d] || counts[d] == 0) continue;
+                    if (best < 0 || Math.abs(sums[d]) > Math.abs(sums[best])) best = d;
+                }
+                if (best < 0) break;
+                taken[best] = true;
+                top.add(new Group(descNames.get(best), sums[best], counts[best]));
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** One group per calendar month of the period, labelled yyyy-MM, including empty months. */
+    List<Group> byMonth(int fromDay, int toDay, Filter f) {
+        lock.readLock().lock();
+        try {
+            int lo = lowerBound(fromDay), hi = lowerBound(toDay + 1);
+            int type = typeId(f);
+            BitSet descOk = descMatches(f);
+            List<Group> out = new ArrayList<>();
+            LocalDate month = LocalDate.ofEpochDay(fromDay).withDayOfMonth(1);
+            int i = lo;
+            while (month.toEpochDay() <= toDay) {
+                LocalDate next = month.plusMonths(1);
+                int end = (int) next.toEpochDay();
+                long sum = 0;
+                int count = 0;
+                for (; i < hi && days[i] < end; i++) {
+                    if (matches(i, f, type, descOk)) {
+                        sum += cents[i];
+                        count++;
+                    }
+                }
+                out.add(new Group(month.getYear() + "-" + (month.getMonthValue() < 10 ? "0" : "") + month.getMonthValue(), sum, count));
+                month = next;
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ----------------------------- internals ------------------------------
+
+    private boolean matches(int i, Filter f, int type, BitSet descOk) {
+        long c = cents[i];
+        if (f.direction() == Direction.DEBIT && c >= 0) return false;
+        if (f.direction() == Direction.CREDIT && c <= 0) return false;
+        if (type != ANY_TYPE && types[i] != type) return false;
+        return descOk == null || descOk.get(descs[i]);
+    }
+
+    // keyword filter evaluated once per distinct description, not per row
+    private BitSet descMatches(Filter f) {
+        if (f.keyword() == null || f.keyword().isBlank()) return null;
+        String k = f.keyword().toLowerCase(Locale.ROOT);
+        BitSet ok = new BitSet(descLower.size());
+        for (int d = 0; d < descLower.size(); d++) {
+            if (descLower.get(d).contains(k)) ok.set(d);
+        }
+        return ok;
+    }
+
+    private static final int ANY_TYPE = Integer.MIN_VALUE;
+
+    // -1 (matches nothing) when the customer has no transaction of that type
+    private int typeId(Filter f) {
+        if (f.type() == null) return ANY_TYPE;
+        for (int t = 0; t < typeNames.size(); t++) {
+            if (typeNames.get(t).equalsIgnoreCase(f.type())) return t;
+        }
+        return -1;
+    }
+
+    private int lowerBound(int day) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] < day) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private int indexOf(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) return i;
+        }
+        return -1;
+    }
+
+    private void insert(int id, int day, long amountCents, String type, String description) {
+        grow();
+        int at = lowerBound(day + 1);   // after existing rows of the same day
+        int tail = size - at;
+        System.arraycopy(ids, at, ids, at + 1, tail);
+        System.arraycopy(days, at, days, at + 1, tail);
+        System.arraycopy(cents, at, cents, at + 1, tail);
+        System.arraycopy(types, at, types, at + 1, tail);
+        System.arraycopy(descs, at, descs, at + 1, tail);
+        set(at, id, day, amountCents, type, description);
+        size++;
+    }
+
+    private void removeAt(int i) {
+        if (i < 0) return;
+        int tail = size - i - 1;
+        System.arraycopy(ids, i + 1, ids, i, tail);
+        System.arraycopy(days, i + 1, days, i, tail);
+        System.arraycopy(cents, i + 1, cents, i, tail);
+        System.arraycopy(types, i + 1, types, i, tail);
+        System.arraycopy(descs, i + 1, descs, i, tail);
+        size--;
+    }
+
+    private void set(int i, int id, int day, long amountCents, String type, String description) {
+        ids[i] = id;
+        days[i] = day;
+        cents[i] = amountCents;
+        types[i] = typeCode(type);
+        descs[i] = descId(description);
+    }
+
+    private byte typeCode(String type) {
+        String t = type == null ? "" : type.trim().toUpperCase(Locale.ROOT);
+        int id = typeNames.indexOf(t);
+        if (id < 0) {
+            if (typeNames.size() == Byte.MAX_VALUE) {
+                throw new IllegalStateException("More than " + Byte.MAX_VALUE + " transaction types");
+            }
+            id = typeNames.size();
+            typeNames.add(t);
+        }
+        return (byte) id;
+    }
+
+    private int descId(String description) {
+        String d = description == null ? "" : description.trim();
+        Integer id = descIndex.get(d);
+        if (id == null) {
+            id = descNames.size();
+            descIndex.put(d, id);
+            descNames.add(d);
+            descLower.add(d.toLowerCase(Locale.ROOT));
+        }
+        return id;
+    }
+
+    private void grow() {
+        if (size < ids.length) return;
+        int c = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, c);
+        days = Arrays.copyOf(days, c);
+        cents = Arrays.copyOf(cents, c);
+        types = Arrays.copyOf(types, c);
+        descs = Arrays.copyOf(descs, c);
+    }
+}
@@ -0,0 +1,93 @@
+package com.bank.Bank_ChatBot.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Binary layout of one journal record payload (big-endian):
+ *
+ *   byte    version (1)
+ *   long    timestamp
+ *   str     channel, question, intent
+ *   int     customerId (Integer.MIN_VALUE = none)
+ *   str     reply
+ *   str     data as JSON
+ *
+ * where str = int byte length (-1 = null) + UTF-8 bytes.
+ */
+final class AuditCodec {
+
+    static final byte VERSION = 1;
+    private static final int NO_CUSTOMER = Integer.MIN_VALUE;
+
+    private final ObjectMapper json;
+    private ByteBuffer buf = ByteBuffer.allocate(4096);   // reused by the single writer thread
+
+    AuditCodec(ObjectMapper json) {
+        this.json = json;
+    }
+
+    /** The returned buffer is only valid until the next call. */
+    ByteBuffer encode(AuditEvent e) throws JsonProcessingException {
+        byte[] data = e.data() == null ? null : json.writeValueAsBytes(e.data());
+        buf.clear();
+        buf.put(VERSION);
+        buf.putLong(e.timestamp());
+        putString(e.channel());
+        putString(e.question());
+        putString(e.intent());
+        buf = ensure(buf, 4);
+        buf.putInt(e.customerId() == null ? NO_CUSTOMER : e.customerId());
+        putString(e.reply());
+        putBytes(data);
+        return buf.flip();
+    }
+
+    AuditEvent decode(ByteBuffer in) throws IOException {
+        byte version = in.get();
+        if (version != VERSION) throw new IOException("Unknown audit record version " + version);
+        long ts = in.getLong();
+        String channel = getString(in);
+        String question = getString(in);
+        String intent = getString(in);
+        int customer = in.getInt();
+        String reply = getString(in);
+        String data = getString(in);
+        return new AuditEvent(ts, channel, question, intent, customer == NO_CUSTOMER ? null : customer, reply,
+                data == null ? null : json.readTree(data));
+    }
+
+    // ----------------------------- internals ------------------------------
+
+    private void putString(String s) {
+        putBytes(s == null ? null : s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void putBytes(byte[] b) {
+        buf = ensure(buf, 4 + (b == null ? 0 : b.length));
+        if (b == null) {
+            buf.putInt(-1);
+        } else {
+            buf.putInt(b.length);
+            buf.put(b);
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        int n = in.getInt();
+        if (n < 0) return null;
+        byte[] b = new byte[n];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer ensure(ByteBuffer b, int more) {
+        if (b.remaining() >= more) return b;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(b.capacity() * 2, b.position() + more));
+        return bigger.put(b.flip());
+    }
+}
@@ -0,0 +1,22 @@
+package com.bank.Bank_ChatBot.audit;
+
+/**
+ * One answered chat question.
+ *
+ * @param timestamp  epoch millis when the reply was produced
+ * @param channel    http | stream | ws
+ * @param intent     resolved intent (NLP or heuristic), UNKNOWN if none
+ * @param customerId customer the reply was about, null if none was resolved
+ * @param reply      reply text shown to the user
+ * @param data       structured reply payload: whatever the controller returned when recorded,
+ *                   a Jackson JsonNode when read back from the journal
+ */
+public record AuditEvent(
+        long timestamp,
+        String channel,
+        String question,
+        String intent,
+        Integer customerId,
+        String reply,
+        Object data
+) {}
@@ -0,0 +1,28 @@
+package com.bank.Bank_ChatBot.audit;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * "audit" health contributor: DOWN once the {@link AuditJournal} writer thread has died, since from
+ * then on chat exchanges are no longer journaled. Not part of the readiness group: the chat still
+ * answers, the overall /actuator/health status is what should page someone.
+ */
+@Component
+public class AuditHealthIndicator implements HealthIndicator {
+
+    private final AuditJournal journal;
+
+    public AuditHealthIndicator(AuditJournal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public Health health() {
+        if (!journal.enabled()) return Health.unknown().withDetail("enabled", false).build();
+        Throwable failure = journal.writerFailure();
+        Health.Builder h = failure == null ? Health.up() : Health.down().withDetail("error", failure.toString());
+        return h.withDetail("queued", journal.queued()).build();
+    }
+}
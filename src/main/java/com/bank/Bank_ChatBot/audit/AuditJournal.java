@@ -0,0 +1,202 @@
+package com.bank.Bank_ChatBot.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Compliance trail of every answered chat question (see {@link AuditEvent}).
+ *
+ * {@link #record} only enqueues on a lock-free queue and returns; it never blocks or touches
+ * the disk. One background thread drains the queue in batches, encodes each event
+ * ({@link AuditCodec}) and appends it to a memory-mapped, segmented journal
+ * ({@link SegmentedLog}) under bank.audit.dir. If the queue is full the event is dropped and
+ * counted rather than slowing the request down.
+ *
+ * A failed write or fsync is counted and the writer carries on. If the writer thread dies anyway
+ * (an Error from the mapped segment, e.g. the file was truncated underneath it) the journal stops
+ * accepting events and {@link AuditHealthIndicator} reports it DOWN.
+ *
+ * Replay with {@link AuditJournalReader}. Metrics: chat.audit.events{outcome=written|dropped|failed},
+ * chat.audit.force.failures, chat.audit.queue.
+ */
+@Component
+public class AuditJournal {
+
+    static final String PREFIX = "audit";
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int capacity;
+    private final int batchSize;
+    private final long forceIntervalNanos;
+    private final long idleParkNanos = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Queue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AuditCodec codec;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Counter forceFailed;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+    private volatile Throwable writerFailure;
+
+    public AuditJournal(ObjectMapper json,
+                        MeterRegistry meters,
+                        @Value("${bank.audit.enabled:true}") boolean enabled,
+                        @Value("${bank.audit.dir:audit}") String dir,
+                        @Value("${bank.audit.segment-size-mb:64}") int segmentSizeMb,
+                        @Value("${bank.audit.max-segments:0}") int maxSegments,
+                        @Value("${bank.audit.queue-capacity:65536}") int capacity,
+                        @Value("${bank.audit.batch-size:256}") int batchSize,
+                        @Value("${bank.audit.force-interval-ms:1000}") long forceIntervalMs) {
+        this.enabled = enabled;
+        this.dir = Path.of(dir);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.maxSegments = maxSegments;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.forceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(forceIntervalMs);
+        this.codec = new AuditCodec(json);
+        this.written = Counter.builder("chat.audit.events").tag("outcome", "written").register(meters);
+        this.dropped = Counter.builder("chat.audit.events").tag("outcome", "dropped").register(meters);
+        this.failed = Counter.builder("chat.audit.events").tag("outcome", "failed").register(meters);
+        this.forceFailed = Counter.builder("chat.audit.force.failures").register(meters);
+        meters.gauge("chat.audit.queue", queued);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) return;
+        SegmentedLog log = new SegmentedLog(dir, PREFIX, segmentSize, maxSegments);
+        start(log);
+        System.out.println("✅ Audit journal at " + dir.toAbsolutePath() + " (segment " + log.currentSegment() + ")");
+    }
+
+    void start(SegmentedLog log) {
+        running = true;
+        writer = Thread.ofPlatform().name("audit-writer").daemon().start(() -> drain(log));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        Thread t = writer;
+        if (t != null) {
+            LockSupport.unpark(t);
+            t.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /** Non-blocking; false if the event was dropped (journal disabled or stopped, writer dead, or queue full). */
+    public boolean record(AuditEvent event) {
+        if (!running) return false;
+        int before = queued.getAndIncrement();
+        if (before >= capacity) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        queue.offer(event);
+        if (before == 0) LockSupport.unpark(writer);   // writer may be parked on an empty queue
+        return true;
+    }
+
+    boolean enabled() { return enabled; }
+
+    int queued() { return queued.get(); }
+
+    /** Why the writer thread died, or null while it is running (or was stopped normally). */
+    Throwable writerFailure() { return writerFailure; }
+
+    // ----------------------------- writer thread ------------------------------
+
+    private void drain(SegmentedLog log) {
+        try {
+            writeLoop(log);
+        } catch (Throwable t) {
+            running = false;
+            writerFailure = t;
+            System.out.println("⚠️ audit writer died, journal no longer accepting events: " + t);
+            for (AuditEvent e; (e = queue.poll()) != null; ) {
+                queued.decrementAndGet();
+                dropped.increment();
+            }
+        } finally {
+            try {
+                log.close();
+            } catch (RuntimeException ex) {
+                System.out.println("⚠️ audit close failed: " + ex);
+                forceFailed.increment();
+            }
+        }
+    }
+
+    private void writeLoop(SegmentedLog log) {
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+        while (running || !queue.isEmpty()) {
+            int n = 0;
+            AuditEvent e;
+            while (n < batchSize && (e = queue.poll()) != null) {
+                queued.decrementAndGet();
+                n++;
+                write(log, e);
+            }
+            dirty |= n > 0;
+            long now = System.nanoTime();
+            if (dirty && now - lastForce >= forceIntervalNanos) {
+                dirty = !force(log);   // a failed fsync is retried on the next interval
+                lastForce = now;
+            }
+            if (n == 0) LockSupport.parkNanos(this, dirty ? Math.min(idleParkNanos, forceIntervalNanos) : idleParkNanos);
+        }
+    }
+
+    private boolean force(SegmentedLog log) {
+        try {
+            log.force();
+            return true;
+        } catch (RuntimeException ex) {
+            System.out.println("⚠️ audit force failed: " + ex);
+            forceFailed.increment();
+            return false;
+        }
+    }
+
+    private void write(SegmentedLog log, AuditEvent e) {
+        try {
+            ByteBuffer payload = codec.encode(e);
+            if (payload.remaining() > log.maxPayload()) {
+                System.out.println("⚠️ audit event of " + payload.remaining() + " bytes exceeds the segment size; dropped");
+                failed.increment();
+                return;
+            }
+            log.append(payload);
+            written.increment();
+        } catch (IOException | RuntimeException ex) {
+            System.out.println("⚠️ audit write failed: " + ex);
+            failed.increment();
+        }
+    }
+}
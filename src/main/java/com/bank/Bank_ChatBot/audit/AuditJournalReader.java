@@ -0,0 +1,87 @@
+package com.bank.Bank_ChatBot.audit;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Replays the audit journal, oldest event first.
+ *
+ * From code: {@code AuditJournalReader.replay(dir, event -> ...)}.
+ *
+ * From the command line it prints one JSON object per event:
+ *
+ *   java -cp app.jar -Dloader.main=com.bank.Bank_ChatBot.audit.AuditJournalReader \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher \
+ *        [dir] [--customer ID] [--intent NAME] [--since 2025-01-31T00:00:00Z]
+ *
+ * dir defaults to ./audit (bank.audit.dir).
+ */
+public final class AuditJournalReader {
+
+    private AuditJournalReader() {}
+
+    public static void replay(Path dir, Consumer<AuditEvent> sink) throws IOException {
+        AuditCodec codec = new AuditCodec(new ObjectMapper());
+        SegmentedLog.replay(dir, AuditJournal.PREFIX, payload -> {
+            try {
+                sink.accept(codec.decode(payload));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Path.of("audit");
+        Predicate<AuditEvent> filter = e -> true;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--customer" -> {
+                    Integer id = Integer.valueOf(args[++i]);
+                    filter = filter.and(e -> id.equals(e.customerId()));
+                }
+                case "--intent" -> {
+                    String intent = args[++i];
+                    filter = filter.and(e -> intent.equalsIgnoreCase(e.intent()));
+                }
+                case "--since" -> {
+                    long since = Instant.parse(args[++i]).toEpochMilli();
+                    filter = filter.and(e -> e.timestamp() >= since);
+                }
+                default -> dir = Path.of(args[i]);
+            }
+        }
+
+        ObjectMapper json = new ObjectMapper();
+        PrintStream out = System.out;
+        Predicate<AuditEvent> selected = filter;
+        int[] count = {0};
+        replay(dir, e -> {
+            if (!selected.test(e)) return;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("time", Instant.ofEpochMilli(e.timestamp()).toString());
+            row.put("channel", e.channel());
+            row.put("question", e.question());
+            row.put("intent", e.intent());
+            row.put("customerId", e.customerId());
+            row.put("reply", e.reply());
+            row.put("data", e.data());
+            try {
+                out.println(json.writeValueAsString(row));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            count[0]++;
+        });
+        System.err.println(count[0] + " event(s)");
+    }
+}
@@ -0,0 +1,180 @@
+package com.bank.Bank_ChatBot.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of byte records in fixed-size, memory-mapped segment files
+ * ({@code <prefix>-<seq>.log}). Single writer; any number of readers via {@link #replay}.
+ *
+ * Record: int length, int CRC32C(payload), payload. The length is written last, and the
+ * unused tail of a segment is zeros, so a reader stops at length 0 (end of data) or at a CRC
+ * mismatch (write torn by a crash), then moves on to the next segment.
+ *
+ * - Rotation: a record that doesn't fit in the current segment starts the next one.
+ * - Recovery: on open the last segment is scanned to its end; if it ends in a torn record the
+ *   writer starts a fresh segment rather than writing over it.
+ * - Retention: with maxSegments > 0 the oldest segments beyond that count are deleted.
+ * - Durability: appends land in the page cache (safe across a JVM crash); {@link #force()}
+ *   flushes to disk (safe across an OS crash).
+ */
+class SegmentedLog implements AutoCloseable {
+
+    static final int HEADER = 8;
+
+    private final Path dir;
+    private final String prefix;
+    private final Pattern fileName;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private long seq;
+    private MappedByteBuffer segment;
+    private int capacity;   // of the open segment; an older one may predate a segment-size change
+    private int position;
+    private final CRC32C crc = new CRC32C();
+
+    SegmentedLog(Path dir, String prefix, int segmentSize, int maxSegments) throws IOException {
+        this.dir = dir;
+        this.prefix = prefix;
+        this.fileName = fileNamePattern(prefix);
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(dir);
+
+        List<Long> existing = segments(dir, fileName);
+        if (existing.isEmpty()) {
+            open(1);
+        } else {
+            open(existing.get(existing.size() - 1));
+            Scan end = scan(segment, capacity, null);
+            position = end.position();
+            if (end.torn()) {
+                System.out.println("⚠️ audit segment " + seq + " ends in a torn record at " + position + "; starting a new segment");
+                rotate();
+            }
+        }
+    }
+
+    /** Largest payload a segment can hold. */
+    int maxPayload() {
+        return segmentSize - HEADER;
+    }
+
+    /** Appends one record (payload = remaining bytes of {@code payload}). */
+    void append(ByteBuffer payload) throws IOException {
+        int len = payload.remaining();
+        if (len == 0 || len > maxPayload()) {
+            throw new IllegalArgumentException("Record of " + len + " bytes doesn't fit a " + segmentSize + "-byte segment");
+        }
+        if (position + HEADER + len > capacity) rotate();
+
+        crc.reset();
+        crc.update(payload.duplicate());
+        segment.put(position + HEADER, payload, payload.position(), len);
+        segment.putInt(position + 4, (int) crc.getValue());
+        segment.putInt(position, len);   // publish last
+        position += HEADER + len;
+    }
+
+    void force() {
+        segment.force();
+    }
+
+    long currentSegment() { return seq; }
+
+    @Override
+    public void close() {
+        force();
+        segment = null;   // unmapped when collected
+    }
+
+    // ----------------------------- reading ------------------------------
+
+    /** Every intact record of every segment in {@code dir}, oldest first. The buffer is only valid during the callback. */
+    static void replay(Path dir, String prefix, Consumer<ByteBuffer> sink) throws IOException {
+        Pattern names = fileNamePattern(prefix);
+        for (long s : segments(dir, names)) {
+            Path file = dir.resolve(name(prefix, s));
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                int size = (int) Math.min(ch.size(), Integer.MAX_VALUE);
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                Scan end = scan(map, size, sink);
+                if (end.torn()) System.out.println("⚠️ " + file.getFileName() + ": torn record at " + end.position() + ", skipping rest of segment");
+            }
+        }
+    }
+
+    // ----------------------------- internals ------------------------------
+
+    private record Scan(int position, boolean torn) {}
+
+    private static Scan scan(ByteBuffer map, int size, Consumer<ByteBuffer> sink) {
+        CRC32C check = new CRC32C();
+        int pos = 0;
+        while (pos + HEADER <= size) {
+            int len = map.getInt(pos);
+            if (len == 0) return new Scan(pos, false);
+            if (len < 0 || pos + HEADER + len > size) return new Scan(pos, true);
+            ByteBuffer payload = map.slice(pos + HEADER, len);
+            check.reset();
+            check.update(payload.duplicate());
+            if ((int) check.getValue() != map.getInt(pos + 4)) return new Scan(pos, true);
+            if (sink != null) sink.accept(payload);
+            pos += HEADER + len;
+        }
+        return new Scan(pos, false);
+    }
+
+    private void rotate() throws IOException {
+        if (segment != null) segment.force();
+        open(seq + 1);
+        if (maxSegments > 0) {
+            List<Long> all = segments(dir, fileName);
+            for (int i = 0; i < all.size() - maxSegments; i++) {
+                Files.deleteIfExists(dir.resolve(name(prefix, all.get(i))));
+            }
+        }
+    }
+
+    private void open(long s) throws IOException {
+        try (FileChannel ch = FileChannel.open(dir.resolve(name(prefix, s)),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // mapping past EOF grows the file; the new bytes read as zeros
+            capacity = (int) Math.max(segmentSize, Math.min(ch.size(), Integer.MAX_VALUE));
+            segment = ch.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+        seq = s;
+        position = 0;
+    }
+
+    private static String name(String prefix, long seq) {
+        return String.format("%s-%020d.log", prefix, seq);
+    }
+
+    private static Pattern fileNamePattern(String prefix) {
+        return Pattern.compile(Pattern.quote(prefix) + "-(\\d{20})\\.log");
+    }
+
+    private static List<Long> segments(Path dir, Pattern names) throws IOException {
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> names.matcher(p.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(m -> Long.parseLong(m.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.bank.Bank_ChatBot.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.bank.Bank_ChatBot.admission.AdaptiveBulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Separate bulkheads so a slow NLP service can't starve DB-only work (and vice versa).
+ * Tunables live under bank.bulkhead.{nlp|db}.*.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    public AdaptiveBulkhead nlpBulkhead(Environment env, MeterRegistry meters) {
+        return bulkhead("nlp", env, meters, 16, 64, 1000, 50);
+    }
+
+    @Bean
+    public AdaptiveBulkhead dbBulkhead(Environment env, MeterRegistry meters) {
+        return bulkhead("db", env, meters, 8, 32, 100, 5);
+    }
+
+    private static AdaptiveBulkhead bulkhead(String name, Environment env, MeterRegistry meters,
+                                             int initialLimit, int maxQueue, long maxWaitMs, long slackMs) {
+        String p = "bank.bulkhead." + name + ".";
+        return new AdaptiveBulkhead(
+                name,
+                env.getProperty(p + "initial-limit", Integer.class, initialLimit),
+                env.getProperty(p + "min-limit", Integer.class, 2),
+                env.getProperty(p + "max-limit", Integer.class, 128),
+                env.getProperty(p + "max-queue", Integer.class, maxQueue),
+                env.getProperty(p + "max-wait-ms", Long.class, maxWaitMs),
+                env.getProperty(p + "tolerance", Double.class, 2.0),
+                env.getProperty(p + "slack-ms", Long.class, slackMs),
+                env.getProperty(p + "backoff", Double.class, 0.9),
+                meters);
+    }
+}
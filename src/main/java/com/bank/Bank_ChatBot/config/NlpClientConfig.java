@@ -1,20 +1,20 @@
 package com.bank.Bank_ChatBot.config;
 
-import java.time.Duration;
-
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import com.bank.Bank_ChatBot.deadline.DeadlineRequestFactory;
+
 @Configuration
 public class NlpClientConfig {
 
+    // 3s connect / 5s read at most; less when the request's deadline is closer
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder
-                .setConnectTimeout(Duration.ofSeconds(3))
-                .setReadTimeout(Duration.ofSeconds(5))
+                .requestFactory(() -> new DeadlineRequestFactory("nlp", 3000, 5000))
                 .build();
     }
 }
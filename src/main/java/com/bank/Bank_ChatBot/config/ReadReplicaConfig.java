@@ -0,0 +1,129 @@
+package com.bank.Bank_ChatBot.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.bank.Bank_ChatBot.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Primary + read-replica routing, enabled with bank.datasource.routing.enabled=true.
+ * The primary comes from the usual spring.datasource.* settings; replicas are listed under
+ * bank.datasource.routing.replicas[n].{url,username,password,driver-class-name}.
+ * See application-replica.yml for a local two-H2 setup.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bank.datasource.routing.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    public record ReplicaProperties(String url, String username, String password, String driverClassName) {}
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, Environment env) {
+        String p = "bank.datasource.routing.";
+        List<ReplicaProperties> configured = Binder.get(env)
+                .bind(p + "replicas", Bindable.listOf(ReplicaProperties.class))
+                .orElse(List.of());
+
+        // fail fast: a replica that can't hand out a connection is skipped by the router, so a
+        // Hikari default (30 s wait) would stall every read before failover
+        long connectionTimeout = env.getProperty(p + "replica-connection-timeout-ms", Long.class, 1000L);
+        long initializationFailTimeout = env.getProperty(p + "replica-initialization-fail-timeout-ms", Long.class, -1L);
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < configured.size(); i++) {
+            replicas.add(replicaPool(configured.get(i), "replica-" + i, connectionTimeout, initializationFailTimeout));
+        }
+        System.out.println("✅ Read routing enabled: 1 primary, " + replicas.size() + " replica(s)");
+
+        return new ReplicaRoutingDataSource(
+                primaryDataSource,
+                replicas,
+                env.getProperty(p + "failover-cooldown-ms", Long.class, 5000L),
+                env.getProperty(p + "read-your-writes-ms", Long.class, 0L));
+    }
+
+    /**
+     * One replica's pool. {@code initializationFailTimeoutMs} below 0 starts the pool without
+     * a connection, so a replica that is down at boot doesn't stop the app.
+     */
+    public static HikariDataSource replicaPool(ReplicaProperties r, String name,
+                                               long connectionTimeoutMs, long initializationFailTimeoutMs) {
+        HikariDataSource ds = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(r.url())
+                .username(r.username())
+                .password(r.password())
+                .driverClassName(r.driverClassName())
+                .build();
+        ds.setPoolName(name);
+        ds.setReadOnly(true);
+        ds.setConnectionTimeout(Math.max(250, connectionTimeoutMs));
+        ds.setValidationTimeout(Math.max(250, connectionTimeoutMs / 2));
+        ds.setInitializationFailTimeout(initializationFailTimeoutMs);
+        return ds;
+    }
+
+    /** What JPA, JdbcTemplate and the SQL initializer see. */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Local stand-in for replication: copy the primary H2 database into each replica once the
+     * app is up (after data.sql and the summary rebuild). H2-only; off unless
+     * bank.datasource.routing.seed-replicas-from-primary=true.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)   // before the warmup starts reading from them
+    public void seedReplicas(ApplicationReadyEvent event) throws SQLException {
+        Environment env = event.getApplicationContext().getEnvironment();
+        if (!env.getProperty("bank.datasource.routing.seed-replicas-from-primary", Boolean.class, false)) return;
+
+        ReplicaRoutingDataSource routing = event.getApplicationContext().getBean(ReplicaRoutingDataSource.class);
+        List<String> script = new ArrayList<>();
+        try (Connection c = routing.getPrimary().getConnection();
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SCRIPT")) {
+            while (rs.next()) script.add(rs.getString(1));
+        }
+        for (DataSource replica : routing.getReplicas()) {
+            try (Connection c = replica.getConnection();
+                 Statement st = c.createStatement()) {
+                c.setReadOnly(false);
+                st.execute("DROP ALL OBJECTS");
+                for (String sql : script) st.execute(sql);
+            }
+        }
+        System.out.println("✅ Seeded " + routing.getReplicas().size() + " replica(s) from primary (" + script.size() + " statements)");
+    }
+}
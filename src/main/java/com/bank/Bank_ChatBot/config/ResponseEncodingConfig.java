@@ -0,0 +1,76 @@
+package com.bank.Bank_ChatBot.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Binary encodings for the JSON APIs (/chat, /api/customers), chosen by the Accept header:
+ *
+ *   application/json              default, also for * / * or no Accept
+ *   application/cbor              CBOR (RFC 8949): binary numbers and lengths, keys still repeated
+ *   application/x-jackson-smile   Smile: also back-references repeated keys and short strings
+ *
+ * The CBOR and Smile mappers come from Boot's Jackson builder, so spring.jackson.* settings and
+ * modules apply as they do to JSON (Spring's own defaults for these converters ignore them).
+ * gzip on top is server.compression. ResponseEncodingTests compares sizes and encode cost.
+ *
+ * Tomcat only applies server.compression.min-response-size to responses with a Content-Length;
+ * Jackson streams without one, so every reply would be gzipped. {@link #bufferedReplies()}
+ * buffers these (already in-memory) replies to set it, and answers GETs with an ETag / 304.
+ */
+@Configuration
+public class ResponseEncodingConfig implements WebMvcConfigurer {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private final Jackson2ObjectMapperBuilder jackson;
+
+    public ResponseEncodingConfig(Jackson2ObjectMapperBuilder jackson) {
+        this.jackson = jackson;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(c -> c instanceof MappingJackson2CborHttpMessageConverter
+                || c instanceof MappingJackson2SmileHttpMessageConverter);
+        // appended after the JSON converter, so JSON stays the answer to * / *
+        converters.add(new MappingJackson2CborHttpMessageConverter(cbor(jackson)));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(smile(jackson)));
+    }
+
+    // not /chat/stream: SSE events must go out as they are produced
+    @Bean
+    public ShallowEtagHeaderFilter bufferedReplies() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                String path = request.getRequestURI().substring(request.getContextPath().length());
+                return !(path.equals("/chat") || path.startsWith("/api/customers"));
+            }
+        };
+        filter.setWriteWeakETag(true);   // Tomcat won't gzip a response with a strong ETag
+        return filter;
+    }
+
+    public static ObjectMapper cbor(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+
+    public static ObjectMapper smile(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory()).build();
+    }
+}
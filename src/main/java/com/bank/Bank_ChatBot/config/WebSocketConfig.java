@@ -0,0 +1,25 @@
+package com.bank.Bank_ChatBot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import com.bank.Bank_ChatBot.controllers.ChatWebSocketHandler;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final ChatWebSocketHandler chatHandler;
+
+    public WebSocketConfig(ChatWebSocketHandler chatHandler) {
+        this.chatHandler = chatHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // same-origin only (the bundled UI); add allowed origins here if the UI is served elsewhere
+        registry.addHandler(chatHandler, "/ws/chat");
+    }
+}
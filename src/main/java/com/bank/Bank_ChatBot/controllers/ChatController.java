@@ -1,16 +1,39 @@
 package com.bank.Bank_ChatBot.controllers;
 
+import com.bank.Bank_ChatBot.admission.BulkheadFullException;
+import com.bank.Bank_ChatBot.analytics.DateRange;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Filter;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Group;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Totals;
+import com.bank.Bank_ChatBot.analytics.TooManyTransactionsException;
+import com.bank.Bank_ChatBot.audit.AuditEvent;
+import com.bank.Bank_ChatBot.audit.AuditJournal;
+import com.bank.Bank_ChatBot.config.ResponseEncodingConfig;
+import com.bank.Bank_ChatBot.deadline.Deadline;
+import com.bank.Bank_ChatBot.deadline.DeadlineExceededException;
 import com.bank.Bank_ChatBot.dto.ParseResponse;
 import com.bank.Bank_ChatBot.service.BankingService;
+import com.bank.Bank_ChatBot.service.BankingService.AccountActivity;
 import com.bank.Bank_ChatBot.service.BankingService.LoanStatus;
+import com.bank.Bank_ChatBot.service.BankingService.TransactionRow;
+import com.bank.Bank_ChatBot.service.CustomerSummaryProjection.CustomerSummary;
 import com.bank.Bank_ChatBot.service.NlpService;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -20,75 +43,272 @@ public class ChatController {
 
     private final NlpService nlp;
     private final BankingService banking;
+    private final AuditJournal audit;
+    private final SpendingAnalytics analytics;
 
-    public ChatController(NlpService nlp, BankingService banking) {
+    public ChatController(NlpService nlp, BankingService banking, AuditJournal audit, SpendingAnalytics analytics) {
         this.nlp = nlp;
         this.banking = banking;
+        this.audit = audit;
+        this.analytics = analytics;
     }
 
     // ----------------------------- HTTP entry ------------------------------
 
-    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    // CBOR / Smile on request (Accept, Content-Type); see ResponseEncodingConfig
+    @PostMapping(
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ResponseEncodingConfig.APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ResponseEncodingConfig.APPLICATION_SMILE_VALUE})
     public Mono<Map<String, Object>> chat(@RequestBody Map<String, String> body) {
-        String message = body.getOrDefault("message", "");
+        return Mono.just(respond(body.getOrDefault("message", ""), "http"));
+    }
+
+    /** Full reply for one message; shared by POST /chat and the WebSocket channel. */
+    public Map<String, Object> respond(String message, String channel) {
         if (message == null || message.trim().isEmpty()) {
-            return Mono.just(jsonReply(
+            Map<String, Object> out = jsonReply(
                     "Your request is missing the 'message' field.",
                     Map.of("error", "ValidationError")
-            ));
+            );
+            audit(channel, "", "VALIDATION_ERROR", out);
+            return out;
         }
 
         try {
             String msg = message.trim();
 
             // 1) Primary path: delegate to NLP (synchronous in your service)
-            ParseResponse parsed = nlp.parse(msg);
+            ParseResponse parsed = parseOrUnknown(msg);
 
-            // 2) Route normally
-            Map<String, Object> out = route(parsed);
+            // 2) If NLP says UNKNOWN, try a lightweight heuristic on the raw text
+            Resolved r = route(parsed, msg);
 
-            // 3) If NLP says UNKNOWN, try a lightweight heuristic on the raw text
-            if ("UNKNOWN".equalsIgnoreCase(parsed.intent())) {
-                Map<String, Object> heuristic = tryHeuristic(msg);
-                if (heuristic != null) return Mono.just(heuristic);
-            }
-
-            return Mono.just(out);
+            // 3) Route
+            Map<String, Object> out = r == null ? unknownReply(parsed) : dispatch(r);
+            audit(channel, msg, r == null ? "UNKNOWN" : r.intent(), out);
+            return out;
 
+        } catch (DeadlineExceededException ex) {
+            Map<String, Object> out = deadlineReply();
+            audit(channel, message.trim(), "DEADLINE_EXCEEDED", out);
+            return out;
         } catch (Exception ex) {
             ex.printStackTrace();
-            return Mono.just(jsonReply(
+            Map<String, Object> out = jsonReply(
                     "Sorry, I’m having trouble right now.",
                     Map.of("error", ex.getClass().getSimpleName())
-            ));
+            );
+            audit(channel, message.trim(), "ERROR", out);
+            return out;
+        }
+    }
+
+    /**
+     * Routing and handlers as for {@link #respond}, with {@code parsed} standing in for the NLP
+     * reply and nothing written to the audit journal. Used by the startup warmup.
+     */
+    public Map<String, Object> rehearse(String message, ParseResponse parsed) {
+        Resolved r = route(parsed, message.trim());
+        return r == null ? unknownReply(parsed) : dispatch(r);
+    }
+
+    /** Hands the exchange to the audit journal; enqueue only, never blocks the reply. */
+    private void audit(String channel, String question, String intent, Map<String, Object> out) {
+        Object data = out.get("data");
+        audit.record(new AuditEvent(System.currentTimeMillis(), channel, question, intent,
+                data instanceof Map<?, ?> d ? customerIdOf(d) : null, String.valueOf(out.get("reply")), data));
+    }
+
+    private static Integer customerIdOf(Map<?, ?> data) {
+        return data.get("customerId") instanceof Integer id ? id : null;
+    }
+
+    // ----------------------------- SSE entry ------------------------------
+    // Same routing as POST /chat, but the reply text goes out as soon as the intent is
+    // resolved and each data section follows as its BankingService query completes.
+    // Events: reply {reply,data} | balance | transaction (one per row) | loan | account | done
+    // The request's Deadline rides in the Reactor context to each blocking() section.
+
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> chatStream(@RequestBody Map<String, String> body) {
+        String message = body.getOrDefault("message", "");
+        if (message == null || message.trim().isEmpty()) {
+            Map<String, Object> out = jsonReply("Your request is missing the 'message' field.", Map.of("error", "ValidationError"));
+            audit("stream", "", "VALIDATION_ERROR", out);
+            return Flux.just(sse("reply", out), sse("done", Map.of()));
+        }
+        String msg = message.trim();
+        StreamTrail trail = new StreamTrail();
+        Deadline deadline = Deadline.current();
+
+        Flux<ServerSentEvent<Object>> events = blocking(() -> parseOrUnknown(msg))
+                .flatMapMany(parsed -> {
+                    Resolved r = route(parsed, msg);
+                    trail.intent = r == null ? "UNKNOWN" : r.intent();
+                    return r == null ? Flux.just(sse("reply", unknownReply(parsed))) : stream(r);
+                })
+                .onErrorResume(ex -> {
+                    if (ex instanceof DeadlineExceededException) {
+                        trail.intent = "DEADLINE_EXCEEDED";
+                        return Flux.just(sse("reply", deadlineReply()));
+                    }
+                    ex.printStackTrace();
+                    trail.intent = "ERROR";
+                    return Flux.just(sse("reply", jsonReply(
+                            "Sorry, I’m having trouble right now.",
+                            Map.of("error", ex.getClass().getSimpleName()))));
+                })
+                .doOnNext(trail::add)   // after the fallback, so the trail has what the client got
+                .concatWith(Mono.just(sse("done", Map.of())))
+                // once per stream, including a client that disconnects midway
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) trail.cancelled();
+                    audit.record(trail.toEvent(msg));
+                });
+        return deadline == null ? events : events.contextWrite(Context.of(Deadline.class, deadline));
+    }
+
+    /** What a streamed reply sent, for the audit journal: the first reply text and every event's data. */
+    private static final class StreamTrail {
+        volatile String intent = "UNKNOWN";
+        private final List<Map<String, Object>> events = Collections.synchronizedList(new ArrayList<>());
+
+        void add(ServerSentEvent<Object> e) {
+            events.add(Map.of("event", e.event(), "data", e.data()));
         }
+
+        void cancelled() {
+            events.add(Map.of("event", "cancelled"));
+        }
+
+        AuditEvent toEvent(String question) {
+            String reply = null;
+            Integer customerId = null;
+            synchronized (events) {
+                for (Map<String, Object> e : events) {
+                    if (!(e.get("data") instanceof Map<?, ?> d)) continue;
+                    if (reply == null && "reply".equals(e.get("event"))) reply = String.valueOf(d.get("reply"));
+                    if (customerId == null) customerId = customerIdOf(d);   // balance/loan events
+                    if (customerId == null && d.get("data") instanceof Map<?, ?> inner) customerId = customerIdOf(inner);   // reply events
+                }
+            }
+            return new AuditEvent(System.currentTimeMillis(), "stream", question, intent, customerId, reply, List.copyOf(events));
+        }
+    }
+
+    private Flux<ServerSentEvent<Object>> stream(Resolved r) {
+        return switch (r.intent()) {
+            case "GET_BALANCE_BY_ID", "GET_BALANCE_FOR_CUSTOMER" -> streamForCustomer(r.slots(), "Whose balance? Provide a customer ID or name.",
+                    id -> Flux.concat(
+                            Mono.just(sse("reply", jsonReply("Looking up the balance for customer " + id + ".", Map.of("customerId", id)))),
+                            blocking(() -> banking.getBalanceSummary(id)).map(s -> s.isEmpty() || s.get().accountCount() == 0
+                                    ? sse("reply", jsonReply("No account found for that customer.", Map.of("customerId", id)))
+                                    : sse("balance", balanceData(s.get()))))
+            );
+            case "LAST_N_TRANSACTIONS" -> streamForCustomer(r.slots(), "Whose transactions? Provide a customer ID or name.", id -> {
+                int n = clampN(parseN(r.slots(), 5));
+                return Flux.concat(
+                        Mono.just(sse("reply", jsonReply("Here are the last " + n + " transactions.", Map.of("customerId", id)))),
+                        blocking(() -> banking.getTransactionsByCustomerId(id, n)).flatMapMany(rows -> rows.isEmpty()
+                                ? Flux.just(sse("reply", jsonReply("No transactions found for that customer.", Map.of("customerId", id, "transactions", List.of()))))
+                                : Flux.fromIterable(rows).map(row -> sse("transaction", normalizeTransaction(row)))));
+            });
+            case "LOAN_STATUS" -> streamForCustomer(r.slots(), "Whose loan status? Provide a customer ID or name.",
+                    id -> Flux.concat(
+                            Mono.just(sse("reply", jsonReply("Checking the loan status for customer " + id + ".", Map.of("customerId", id)))),
+                            blocking(() -> banking.getLatestLoanStatus(id)).map(s -> s.isEmpty()
+                                    ? sse("reply", jsonReply("No loans found for that customer.", Map.of("customerId", id)))
+                                    : sse("loan", normalizeLoan(s.get()))))
+            );
+            case "LIST_LOANS" -> streamForCustomer(r.slots(), "Whose loans? Provide a customer ID or name.",
+                    id -> Flux.concat(
+                            Mono.just(sse("reply", jsonReply("Here are the loans.", Map.of("customerId", id)))),
+                            blocking(() -> banking.getLoansByCustomerId(id)).flatMapMany(list -> list.isEmpty()
+                                    ? Flux.just(sse("reply", jsonReply("No loans found for that customer.", Map.of("customerId", id, "loans", List.of()))))
+                                    : Flux.fromIterable(list).map(l -> sse("loan", normalizeLoan(l)))))
+            );
+            case "GET_ACCOUNTS_BY_ID" -> streamForCustomer(r.slots(), "Whose accounts? Provide a customer ID or name.", id -> {
+                int k = recentPerAccount(r.slots());
+                return blocking(() -> banking.getAccountActivity(id, k)).flatMapMany(accounts -> accounts.isEmpty()
+                        ? Flux.just(sse("reply", jsonReply("No accounts found for that customer.", Map.of("customerId", id, "accounts", List.of()))))
+                        : Flux.concat(
+                                Mono.just(sse("reply", jsonReply(accountsReply(id, accounts.size(), k), Map.of("customerId", id)))),
+                                Flux.fromIterable(accounts).map(a -> sse("account", normalizeAccount(a)))));
+            });
+            default -> blocking(() -> dispatch(r)).map(out -> sse("reply", out)).flux();
+        };
+    }
+
+    private Flux<ServerSentEvent<Object>> streamForCustomer(Map<String, Object> slots, String ask,
+                                                            Function<Integer, Flux<ServerSentEvent<Object>>> sections) {
+        return blocking(() -> Optional.ofNullable(resolveCustomerId(slots)))
+                .flatMapMany(id -> id.isPresent()
+                        ? sections.apply(id.get())
+                        : Flux.just(sse("reply", jsonReply(ask, Map.of()))));
+    }
+
+    private static ServerSentEvent<Object> sse(String event, Object data) {
+        return ServerSentEvent.<Object>builder(data).event(event).build();
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.deferContextual(ctx -> Mono.fromCallable(Deadline.bind(ctx.getOrDefault(Deadline.class, null), call)))
+                .subscribeOn(Schedulers.boundedElastic());
     }
 
     // ----------------------------- Router ------------------------------
 
-    private Map<String, Object> route(ParseResponse p) {
+    /** Intent plus slots, from either the NLP parse or the regex heuristics. */
+    record Resolved(String intent, Map<String, Object> slots) {}
+
+    /** NLP intent if we handle it, else the heuristics when NLP gave up; null if neither matched. */
+    private Resolved route(ParseResponse parsed, String msg) {
+        Resolved r = resolve(parsed, msg);
+        if (r == null && "UNKNOWN".equalsIgnoreCase(parsed.intent())) r = matchHeuristic(msg);
+        return r;
+    }
+
+    /** Null when the NLP intent isn't one we handle. The raw text rides along for period / keyword parsing. */
+    private Resolved resolve(ParseResponse p, String msg) {
         String intent = p.intent() == null ? "UNKNOWN" : p.intent();
         Map<String, Object> slots = Map.of(
             "customer_id", p.customerId(),
             "n", p.n(),
-            "name", p.name() != null ? p.name() : ""
+            "name", p.name() != null ? p.name() : "",
+            "text", msg
         );
 
         return switch (intent) {
-            case "GET_BALANCE_BY_ID", "GET_BALANCE_FOR_CUSTOMER" -> handleGetBalance(slots);
-            case "GET_ACCOUNTS_BY_ID" -> handleGetAccounts(slots);
-            case "LAST_N_TRANSACTIONS" -> handleGetTransactions(slots);
-            case "LOAN_STATUS" -> handleGetLoanStatus(slots);
-            case "LIST_LOANS" -> handleGetLoans(slots);
-            default -> {
-                String follow = p.follow_up() != null && !p.follow_up().isBlank()
-                        ? p.follow_up()
-                        : "I didn't get that. Try: 'balance for customer 101' or 'last 5 transactions for John Doe'.";
-                yield jsonReply(follow, Map.of("intent", "UNKNOWN"));
-            }
+            case "GET_BALANCE_BY_ID", "GET_BALANCE_FOR_CUSTOMER", "GET_ACCOUNTS_BY_ID",
+                 "LAST_N_TRANSACTIONS", "LOAN_STATUS", "LIST_LOANS",
+                 "SPENDING_TOTAL", "TYPE_TOTAL", "TOP_SPENDING", "SPENDING_BY_MONTH" -> new Resolved(intent, slots);
+            default -> null;
+        };
+    }
+
+    private Map<String, Object> dispatch(Resolved r) {
+        return switch (r.intent()) {
+            case "GET_BALANCE_BY_ID", "GET_BALANCE_FOR_CUSTOMER" -> handleGetBalance(r.slots());
+            case "GET_ACCOUNTS_BY_ID" -> handleGetAccounts(r.slots());
+            case "LAST_N_TRANSACTIONS" -> handleGetTransactions(r.slots());
+            case "LOAN_STATUS" -> handleGetLoanStatus(r.slots());
+            case "LIST_LOANS" -> handleGetLoans(r.slots());
+            case "SPENDING_TOTAL", "TYPE_TOTAL", "TOP_SPENDING", "SPENDING_BY_MONTH" -> handleSpending(r.intent(), r.slots());
+            default -> jsonReply("I didn't get that.", Map.of("intent", r.intent()));
         };
     }
 
+    private Map<String, Object> deadlineReply() {
+        return jsonReply("Sorry, that took too long. Please try again.", Map.of("error", "DeadlineExceeded"));
+    }
+
+    private Map<String, Object> unknownReply(ParseResponse p) {
+        String follow = p.follow_up() != null && !p.follow_up().isBlank()
+                ? p.follow_up()
+                : "I didn't get that. Try: 'balance for customer 101' or 'last 5 transactions for John Doe'.";
+        return jsonReply(follow, Map.of("intent", "UNKNOWN"));
+    }
+
     // ----------------------------- Heuristic fallback ------------------------------
     // Catches common phrasings when NLP misses:
     //  - "balance for customer id 3" / "balance for id 3" / "balance for customer 3"
@@ -96,6 +316,9 @@ public class ChatController {
     //  - "last 5 transactions for id 3"
     //  - "loan status for id 3"
     //  - "list loans for id 3"
+    //  - "accounts for id 3"
+    //  - "spending by month for customer 3", "top 5 expenses for customer 3 this year",
+    //    "total withdrawals for customer 3 last month", "how much did customer 3 spend on coffee"
     private static final Pattern RE_BALANCE_BY_ID = Pattern.compile(
             "(?i)\\bbalance\\b.*?\\b(?:customer\\s*id|id|customer)\\s*(\\d+)\\b");
     private static final Pattern RE_BALANCE_BY_NAME = Pattern.compile(
@@ -106,20 +329,40 @@ public class ChatController {
             "(?i)\\bloan\\s*status\\b.*?\\b(?:customer\\s*id|id|customer)\\s*(\\d+)\\b");
     private static final Pattern RE_LIST_LOANS = Pattern.compile(
             "(?i)\\b(?:list|show)\\s+loans\\b.*?\\b(?:customer\\s*id|id|customer)\\s*(\\d+)\\b");
-
-    private Map<String, Object> tryHeuristic(String msg) {
+    private static final Pattern RE_ACCOUNTS = Pattern.compile(
+            "(?i)\\baccounts\\b.*?\\b(?:customer\\s*id|id|customer)\\s*(\\d+)\\b");
+    private static final Pattern RE_CUSTOMER_REF = Pattern.compile(
+            "(?i)\\b(?:customer\\s*id|id|customer)\\s*(\\d+)\\b");
+    private static final Pattern RE_SPENDING_BY_MONTH = Pattern.compile(
+            "(?i)\\b(?:spend|spent|spending|expenses)\\b.*?\\b(?:by|per|each)\\s+month\\b|\\bmonthly\\s+(?:spend|spending|expenses)\\b");
+    private static final Pattern RE_TOP_SPENDING = Pattern.compile(
+            "(?i)\\b(?:top|biggest|largest)\\s+(?:(\\d{1,2})\\s+)?(?:expenses|spending|purchases|payees|merchants)\\b");
+    private static final Pattern RE_TYPE_TOTAL = Pattern.compile(
+            "(?i)\\btotal\\s+(?:deposits|withdrawals|payments|transfers|fees|purchases)\\b");
+    private static final Pattern RE_SPENDING = Pattern.compile(
+            "(?i)\\b(?:spend|spent|spending|expenses)\\b");
+    // analytics parameters read from the raw text
+    private static final Pattern RE_TX_TYPE = Pattern.compile(
+            "(?i)\\b(deposit|withdrawal|payment|transfer|fee|purchase)s?\\b");
+    private static final Pattern RE_ON_KEYWORD = Pattern.compile(
+            "(?i)\\bon\\s+([a-z][a-z &'\\-]*?)\\s*(?=\\b(?:in|during|over|last|this|past|previous|since|for|yesterday|today|by|per)\\b|[?.!]*$)");
+
+    private Resolved matchHeuristic(String msg) {
         Matcher m;
 
+        Resolved spending = matchSpending(msg);
+        if (spending != null) return spending;
+
         m = RE_BALANCE_BY_ID.matcher(msg);
         if (m.find()) {
             Integer id = safeInt(m.group(1));
-            if (id != null) return handleGetBalance(Map.of("customer_id", id));
+            if (id != null) return new Resolved("GET_BALANCE_BY_ID", Map.of("customer_id", id));
         }
 
         m = RE_BALANCE_BY_NAME.matcher(msg);
         if (m.find()) {
             String name = clean(m.group(1));
-            if (name != null) return handleGetBalance(Map.of("name", name));
+            if (name != null) return new Resolved("GET_BALANCE_FOR_CUSTOMER", Map.of("name", name));
         }
 
         m = RE_TX_LASTN.matcher(msg);
@@ -130,25 +373,54 @@ public class ChatController {
                 Map<String, Object> slots = new HashMap<>();
                 slots.put("customer_id", id);
                 if (n != null) slots.put("n", clampN(n));
-                return handleGetTransactions(slots);
+                return new Resolved("LAST_N_TRANSACTIONS", slots);
             }
         }
 
         m = RE_LOAN_STATUS.matcher(msg);
         if (m.find()) {
             Integer id = safeInt(m.group(1));
-            if (id != null) return handleGetLoanStatus(Map.of("customer_id", id));
+            if (id != null) return new Resolved("LOAN_STATUS", Map.of("customer_id", id));
         }
 
         m = RE_LIST_LOANS.matcher(msg);
         if (m.find()) {
             Integer id = safeInt(m.group(1));
-            if (id != null) return handleGetLoans(Map.of("customer_id", id));
+            if (id != null) return new Resolved("LIST_LOANS", Map.of("customer_id", id));
+        }
+
+        m = RE_ACCOUNTS.matcher(msg);
+        if (m.find()) {
+            Integer id = safeInt(m.group(1));
+            if (id != null) return new Resolved("GET_ACCOUNTS_BY_ID", Map.of("customer_id", id));
         }
 
         return null; // no heuristic match → stick with original UNKNOWN reply
     }
 
+    // checked first: "spending across accounts for customer 3" is an analytics question
+    static Resolved matchSpending(String msg) {
+        Matcher ref = RE_CUSTOMER_REF.matcher(msg);
+        if (!ref.find()) return null;
+        Integer id = safeInt(ref.group(1));
+        if (id == null) return null;
+
+        Map<String, Object> slots = new HashMap<>();
+        slots.put("customer_id", id);
+        slots.put("text", msg);
+
+        if (RE_SPENDING_BY_MONTH.matcher(msg).find()) return new Resolved("SPENDING_BY_MONTH", slots);
+        Matcher m = RE_TOP_SPENDING.matcher(msg);
+        if (m.find()) {
+            Integer n = safeInt(m.group(1));
+            if (n != null) slots.put("n", clampN(n));
+            return new Resolved("TOP_SPENDING", slots);
+        }
+        if (RE_TYPE_TOTAL.matcher(msg).find()) return new Resolved("TYPE_TOTAL", slots);
+        if (RE_SPENDING.matcher(msg).find()) return new Resolved("SPENDING_TOTAL", slots);
+        return null;
+    }
+
     // ----------------------------- Handlers (always non-empty reply) ------------------------------
 
     private Map<String, Object> handleGetBalance(Map<String, Object> slots) {
@@ -156,14 +428,20 @@ public class ChatController {
         if (id == null) {
             return jsonReply("Whose balance? Provide a customer ID or name.", Map.of());
         }
-        Optional<BigDecimal> bal = banking.getLatestBalance(id);
-        if (bal.isEmpty()) {
+        Optional<CustomerSummary> summary = banking.getBalanceSummary(id);
+        if (summary.isEmpty() || summary.get().accountCount() == 0) {
             return jsonReply("No account found for that customer.", Map.of("customerId", id));
         }
-        BigDecimal amount = money(bal.get());
+        CustomerSummary s = summary.get();
+        BigDecimal amount = money(s.totalBalance());
+        if (s.accountCount() == 1) {
+            return jsonReply("Balance for customer " + id + " is $" + amount, balanceData(s));
+        }
+        StringJoiner parts = new StringJoiner(", ", " (", ")");
+        s.balancesByType().forEach((type, amt) -> parts.add(type + " $" + money(amt)));
         return jsonReply(
-                "Balance for customer " + id + " is $" + amount,
-                Map.of("customerId", id, "amount", amount)
+                "Total balance for customer " + id + " is $" + amount + " across " + s.accountCount() + " accounts" + parts + ".",
+                balanceData(s)
         );
     }
 
@@ -173,13 +451,11 @@ public class ChatController {
             return jsonReply("Whose transactions? Provide a customer ID or name.", Map.of());
         }
         int n = clampN(parseN(slots, 5));
-        List<Map<String, Object>> rows = banking.getTransactionsByCustomerId(id, n);
+        List<TransactionRow> rows = banking.getTransactionsByCustomerId(id, n);
 
         List<Map<String, Object>> norm = new ArrayList<>();
-        for (Map<String, Object> r : rows) {
-            Map<String, Object> x = new LinkedHashMap<>(r);
-            if (x.containsKey("amount")) x.put("amount", moneySafe(x.get("amount")));
-            norm.add(x);
+        for (TransactionRow r : rows) {
+            norm.add(normalizeTransaction(r));
         }
 
         if (norm.isEmpty()) {
@@ -218,11 +494,7 @@ public class ChatController {
 
         List<Map<String, Object>> normalized = new ArrayList<>();
         for (LoanStatus l : list) {
-            normalized.add(Map.of(
-                    "loanId", l.getLoanId(),
-                    "status", normUpper(l.getStatus()),
-                    "amount", money(l.getAmount())
-            ));
+            normalized.add(normalizeLoan(l));
         }
 
         if (normalized.isEmpty()) {
@@ -236,12 +508,175 @@ public class ChatController {
         if (id == null) {
             return jsonReply("Whose accounts? Provide a customer ID or name.", Map.of());
         }
-        // For now, return a simple message - you can implement account listing logic here
-        return jsonReply("Account listing for customer " + id + " - feature coming soon!", Map.of("customerId", id));
+        int k = recentPerAccount(slots);
+        List<AccountActivity> accounts = banking.getAccountActivity(id, k);
+
+        List<Map<String, Object>> normalized = new ArrayList<>();
+        for (AccountActivity a : accounts) {
+            normalized.add(normalizeAccount(a));
+        }
+
+        if (normalized.isEmpty()) {
+            return jsonReply("No accounts found for that customer.", Map.of("customerId", id, "accounts", List.of()));
+        }
+        return jsonReply(accountsReply(id, normalized.size(), k), Map.of("customerId", id, "accounts", normalized));
+    }
+
+    // Aggregates come from SpendingAnalytics (in-memory columns per customer). Spending is
+    // reported as a positive amount; the period and keyword are read from the message text.
+    Map<String, Object> handleSpending(String intent, Map<String, Object> slots) {
+        Integer id = resolveCustomerId(slots);
+        if (id == null) {
+            return jsonReply("Whose spending? Provide a customer ID or name.", Map.of());
+        }
+        String text = String.valueOf(slots.getOrDefault("text", ""));
+        LocalDate today = LocalDate.now();
+        DateRange range = "SPENDING_BY_MONTH".equals(intent)
+                ? DateRange.parse(text, today, DateRange.lastMonths(today, 6))
+                : DateRange.parse(text, today);
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("customerId", id);
+        data.put("period", range.label());
+        data.put("from", range.from().toString());
+        data.put("to", range.to().toString());
+
+        if (range.exceedsMaxSpan()) {
+            return jsonReply("I can add up spending over at most " + DateRange.MAX_YEARS
+                    + " years. Please ask about a shorter period.", data);
+        }
+        try {
+            return spendingReply(intent, id, range, text, slots, data);
+        } catch (TooManyTransactionsException ex) {
+            return jsonReply("Customer " + id + " has too many transactions " + range.label()
+                    + " to add up here. Please ask about a shorter period.", data);
+        }
+    }
+
+    private Map<String, Object> spendingReply(String intent, Integer id, DateRange range, String text,
+                                              Map<String, Object> slots, Map<String, Object> data) {
+        switch (intent) {
+            case "TYPE_TOTAL" -> {
+                String type = match(RE_TX_TYPE, text);
+                Totals t = analytics.total(id, range, type == null ? Filter.spending(null) : Filter.ofType(type));
+                String what = type == null ? "spending" : type.toLowerCase(Locale.ROOT) + "s";
+                BigDecimal amount = money(t.amount().abs());
+                data.put("type", type == null ? null : normUpper(type));
+                data.put("amount", amount);
+                data.put("count", t.count());
+                return jsonReply("Total " + what + " for customer " + id + " " + range.label() + ": $" + amount
+                        + " across " + t.count() + (t.count() == 1 ? " transaction." : " transactions."), data);
+            }
+            case "TOP_SPENDING" -> {
+                int n = clampN(parseN(slots, 5));
+                List<Group> top = analytics.top(id, range, Filter.spending(match(RE_ON_KEYWORD, text)), n);
+                data.put("items", spendingItems(top, "description"));
+                if (top.isEmpty()) {
+                    return jsonReply("No spending found for customer " + id + " " + range.label() + ".", data);
+                }
+                StringJoiner parts = new StringJoiner(", ");
+                for (Group g : top) parts.add((g.label().isEmpty() ? "(no description)" : g.label()) + " $" + money(g.amount().negate()));
+                return jsonReply("Top " + top.size() + " expenses for customer " + id + " " + range.label() + ": " + parts + ".", data);
+            }
+            case "SPENDING_BY_MONTH" -> {
+                List<Group> months = analytics.byMonth(id, range, Filter.spending(match(RE_ON_KEYWORD, text)));
+                data.put("items", spendingItems(months, "month"));
+                if (months.stream().allMatch(g -> g.count() == 0)) {   // empty months are listed too
+                    return jsonReply("No spending found for customer " + id + " " + range.label() + ".", data);
+                }
+                StringJoiner parts = new StringJoiner(", ");
+                for (Group g : months) parts.add(g.label() + " $" + money(g.amount().negate()));
+                return jsonReply("Monthly spending for customer " + id + " " + range.label() + ": " + parts + ".", data);
+            }
+            default -> {
+                String keyword = match(RE_ON_KEYWORD, text);
+                Totals t = analytics.total(id, range, Filter.spending(keyword));
+                BigDecimal amount = money(t.amount().negate());
+                data.put("keyword", keyword);
+                data.put("amount", amount);
+                data.put("count", t.count());
+                return jsonReply("Customer " + id + " spent $" + amount + (keyword == null ? "" : " on " + keyword)
+                        + " " + range.label() + " (" + t.count() + (t.count() == 1 ? " transaction)." : " transactions)."), data);
+            }
+        }
+    }
+
+    private static List<Map<String, Object>> spendingItems(List<Group> groups, String labelKey) {
+        List<Map<String, Object>> items = new ArrayList<>(groups.size());
+        for (Group g : groups) {
+            Map<String, Object> x = new LinkedHashMap<>();
+            x.put(labelKey, g.label());
+            x.put("amount", money(g.amount().negate()));
+            x.put("count", g.count());
+            items.add(x);
+        }
+        return items;
     }
 
     // ----------------------------- Helpers ------------------------------
 
+    /** NLP parse; when the NLP bulkhead is saturated, degrade to the regex heuristics instead of failing. */
+    private ParseResponse parseOrUnknown(String msg) {
+        try {
+            return nlp.parse(msg);
+        } catch (BulkheadFullException ex) {
+            return new ParseResponse("UNKNOWN", 0, 0, null, null);
+        }
+    }
+
+    private static Map<String, Object> normalizeTransaction(TransactionRow row) {
+        Map<String, Object> x = new LinkedHashMap<>();
+        x.put("transaction_date", row.transactionDate());
+        x.put("amount", money(row.amount()));
+        x.put("type", row.type());
+        x.put("description", row.description());
+        return x;
+    }
+
+    // id/type/balance match the accounts table in the web UI
+    private static Map<String, Object> normalizeAccount(AccountActivity a) {
+        List<Map<String, Object>> recent = new ArrayList<>(a.recentTransactions().size());
+        for (TransactionRow t : a.recentTransactions()) recent.add(normalizeTransaction(t));
+        Map<String, Object> x = new LinkedHashMap<>();
+        x.put("id", a.accountId());
+        x.put("type", a.accountType());
+        x.put("balance", money(a.balance()));
+        x.put("recentTransactions", recent);
+        return x;
+    }
+
+    private static String accountsReply(Integer id, int count, int k) {
+        return "Customer " + id + " has " + count + (count == 1 ? " account" : " accounts")
+                + "; showing up to " + k + " recent transactions each.";
+    }
+
+    /** Transactions shown per account: the "n" slot when given, else 3. */
+    private static int recentPerAccount(Map<String, Object> slots) {
+        int n = parseN(slots, 0);
+        return n > 0 ? clampN(n) : 3;
+    }
+
+    private static Map<String, Object> balanceData(CustomerSummary s) {
+        Map<String, Object> byType = new LinkedHashMap<>();
+        s.balancesByType().forEach((type, amt) -> byType.put(type, money(amt)));
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("customerId", s.customerId());
+        data.put("amount", money(s.totalBalance()));
+        data.put("accountCount", s.accountCount());
+        data.put("balancesByType", byType);
+        data.put("openLoans", s.openLoanCount());
+        data.put("outstanding", money(s.outstandingAmount()));
+        return data;
+    }
+
+    private static Map<String, Object> normalizeLoan(LoanStatus l) {
+        return Map.of(
+                "loanId", l.getLoanId(),
+                "status", normUpper(l.getStatus()),
+                "amount", money(l.getAmount())
+        );
+    }
+
     private Map<String, Object> jsonReply(String reply, Map<String, Object> data) {
         return Map.of(
                 "reply", (reply == null || reply.isBlank()) ? "..." : reply,
@@ -276,6 +711,11 @@ public class ChatController {
         } catch (Exception e) { return null; }
     }
 
+    private static String match(Pattern p, String text) {
+        Matcher m = p.matcher(text);
+        return m.find() ? clean(m.group(1)) : null;
+    }
+
     private static String clean(String s) {
         if (s == null) return null;
         s = s.trim();
@@ -290,15 +730,4 @@ public class ChatController {
     private static BigDecimal money(BigDecimal v) {
         return v == null ? null : v.setScale(2, RoundingMode.HALF_UP);
     }
-
-    private static BigDecimal moneySafe(Object v) {
-        if (v == null) return null;
-        try {
-            if (v instanceof BigDecimal bd) return money(bd);
-            if (v instanceof Number n) return money(BigDecimal.valueOf(n.doubleValue()));
-            return money(new BigDecimal(String.valueOf(v)));
-        } catch (Exception e) {
-            return null;
-        }
-    }
 }
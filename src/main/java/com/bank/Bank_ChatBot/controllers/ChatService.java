@@ -1,5 +1,8 @@
 package com.bank.Bank_ChatBot.controllers;
 
+import com.bank.Bank_ChatBot.admission.AdaptiveBulkhead;
+import com.bank.Bank_ChatBot.admission.BulkheadFullException;
+import com.bank.Bank_ChatBot.datasource.ReadOnlyRouting;
 import com.bank.Bank_ChatBot.entities.Account;
 import com.bank.Bank_ChatBot.entities.Customer;
 import com.bank.Bank_ChatBot.entities.Loan;
@@ -8,13 +11,17 @@ import com.bank.Bank_ChatBot.repositories.AccountRepository;
 import com.bank.Bank_ChatBot.repositories.CustomerRepository;
 import com.bank.Bank_ChatBot.repositories.LoanRepository;
 import com.bank.Bank_ChatBot.repositories.TransactionRepository;
+import com.bank.Bank_ChatBot.util.TextWriter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
-import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 @Service
 public class ChatService {
@@ -23,135 +30,182 @@ public class ChatService {
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final LoanRepository loanRepository;
+    private final AdaptiveBulkhead db;
 
     public ChatService(CustomerRepository customerRepository,
                        AccountRepository accountRepository,
                        TransactionRepository transactionRepository,
-                       LoanRepository loanRepository) {
+                       LoanRepository loanRepository,
+                       @Qualifier("dbBulkhead") AdaptiveBulkhead db) {
         this.customerRepository = customerRepository;
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
         this.loanRepository = loanRepository;
+        this.db = db;
     }
 
     // main entry
     public String getResponse(String message) {
+        StringBuilder sb = new StringBuilder(256);
+        writeResponse(message, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Same reply as {@link #getResponse}, written straight into {@code out} (e.g. the response
+     * Writer) row by row. The lookups run in the DB bulkhead; the rows are written only after its
+     * slot is released, so a slow client doesn't hold a DB slot (or count as DB latency). If a
+     * lookup fails, nothing but the error line is written.
+     */
+    public void writeResponse(String message, Appendable out) {
+        TextWriter w = new TextWriter(out);
         if (message == null || message.isBlank()) {
-            return help();
+            help(w);
+            return;
         }
-        String msg = message.trim().toLowerCase();
-
+        // every command here is DB-only; run it in the DB bulkhead so it's isolated from NLP latency
+        Consumer<TextWriter> reply;
         try {
-            // --- list customers ---
-            if (msg.startsWith("list customers")) {
-                List<Customer> customers = customerRepository.findAll();
-                if (customers.isEmpty()) return "No customers found.";
-                String body = customers.stream()
-                        .sorted(Comparator.comparing(Customer::getId))
-                        .map(c -> String.format("customer %d: %s (%s)", c.getId(), c.getFullName(), c.getEmail()))
-                        .collect(Collectors.joining("\n"));
-                return "Customers:\n" + body;
-            }
-
-            // --- customer {id} ---
-            if (msg.startsWith("customer")) {
-                Integer id = safeInt(extractTrailingNumber(message, "customer"));
-                if (id == null) return "Please provide a valid numeric customer id.";
-                Optional<Customer> oc = customerRepository.findById(id);
-                if (oc.isEmpty()) return "Customer " + id + " not found.";
-                Customer c = oc.get();
-                String header = String.format("customer %d: %s (%s)", c.getId(), c.getFullName(), c.getEmail());
-
-                List<Account> accounts = accountRepository.findByCustomerId(id);
-                String accountsStr = accounts.isEmpty() ? "(none)" :
-                        accounts.stream()
-                                .sorted(Comparator.comparing(Account::getId))
-                                .map(a -> String.format("  account %d: %s, balance=%.2f",
-                                        a.getId(), a.getType(), a.getBalance()))
-                                .collect(Collectors.joining("\n"));
-
-                List<Loan> loans = loanRepository.findByCustomerId(id);
-                String loansStr = loans.isEmpty() ? "(none)" :
-                        loans.stream()
-                                .sorted(Comparator.comparing(Loan::getId))
-                                .map(l -> String.format("  loan %d: amount=%.2f, status=%s",
-                                        l.getId(), l.getAmount(), l.getStatus()))
-                                .collect(Collectors.joining("\n"));
-
-                return header + "\naccounts:\n" + accountsStr + "\nloans:\n" + loansStr;
-            }
-
-            // --- accounts for customer {id} ---
-            if (msg.startsWith("accounts for customer")) {
-                Integer id = safeInt(extractTrailingNumber(message, "accounts for customer"));
-                if (id == null) return "Please provide a valid numeric customer id.";
-                List<Account> accounts = accountRepository.findByCustomerId(id);
-                if (accounts.isEmpty()) return "No accounts found for customer " + id + ".";
-                return accounts.stream()
-                        .sorted(Comparator.comparing(Account::getId))
-                        .map(a -> String.format("account %d: %s, balance=%.2f",
-                                a.getId(), a.getType(), a.getBalance()))
-                        .collect(Collectors.joining("\n"));
-            }
-
-            // --- balance for account {id} ---
-            if (msg.startsWith("balance for account")) {
-                Integer id = safeInt(extractTrailingNumber(message, "balance for account"));
-                if (id == null) return "Please provide a valid numeric account id.";
-                Optional<Account> oa = accountRepository.findById(id);
-                if (oa.isEmpty()) return "Account " + id + " not found.";
-                Account a = oa.get();
-                return String.format("Account %d (%s) balance: %.2f", a.getId(), a.getType(), a.getBalance());
-            }
-
-            // --- transactions for account {id} ---
-            if (msg.startsWith("transactions for account")) {
-                Integer id = safeInt(extractTrailingNumber(message, "transactions for account"));
-                if (id == null) return "Please provide a valid numeric account id.";
-                // requires repository method: List<Transaction> findByAccountIdOrderByTimestampDesc(Integer accountId);
-                List<Transaction> txs = transactionRepository.findByAccountIdOrderByTimestampDesc(id);
-                if (txs.isEmpty()) return "No transactions found for account " + id + ".";
-                DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-                return txs.stream()
-                        .map(t -> String.format("[%s] %s %.2f - %s",
-                                t.getTimestamp() == null ? "no-date" : fmt.format(t.getTimestamp()),
-                                t.getType(), t.getAmount(),
-                                t.getDescription() == null ? "" : t.getDescription()))
-                        .collect(Collectors.joining("\n"));
-            }
-
-            // --- loans for customer {id} ---
-            if (msg.startsWith("loans for customer")) {
-                Integer id = safeInt(extractTrailingNumber(message, "loans for customer"));
-                if (id == null) return "Please provide a valid numeric customer id.";
-                List<Loan> loans = loanRepository.findByCustomerId(id);
-                if (loans.isEmpty()) return "No loans found for customer " + id + ".";
-                return loans.stream()
-                        .sorted(Comparator.comparing(Loan::getId))
-                        .map(l -> String.format("loan %d: amount=%.2f, status=%s",
-                                l.getId(), l.getAmount(), l.getStatus()))
-                        .collect(Collectors.joining("\n"));
-            }
-
-            // default help
-            return help();
-
+            reply = db.execute(() -> ReadOnlyRouting.onReplica(() -> answer(message)));
+        } catch (BulkheadFullException ex) {
+            w.text("Sorry — I'm busy right now, please try again in a moment.");
+            return;
         } catch (Exception ex) {
             // keep it friendly; logs will show details from controllers
-            return "Sorry — I hit an error.";
+            w.text("Sorry — I hit an error.");
+            return;
+        }
+        reply.accept(w);   // an UncheckedIOException here means the client went away
+    }
+
+    /** Loads what {@code message} asks for and returns how to write it. */
+    private Consumer<TextWriter> answer(String message) {
+        String msg = message.trim().toLowerCase();
+
+        // --- list customers ---
+        if (msg.startsWith("list customers")) {
+            List<Customer> customers = customerRepository.findAll(Sort.by("id"));
+            if (customers.isEmpty()) return w -> w.text("No customers found.");
+            return w -> {
+                w.text("Customers:");
+                for (Customer c : customers) {
+                    customerLine(w.newline(), c);
+                }
+            };
+        }
+
+        // --- customer {id} ---
+        if (msg.startsWith("customer")) {
+            Integer id = safeInt(extractTrailingNumber(message, "customer"));
+            if (id == null) return w -> w.text("Please provide a valid numeric customer id.");
+            Optional<Customer> oc = customerRepository.findById(id);
+            if (oc.isEmpty()) return w -> w.text("Customer ").integer(id).text(" not found.");
+            List<Account> accounts = accountRepository.findByCustomerId(id);
+            List<Loan> loans = loanRepository.findByCustomerId(id);
+            return w -> {
+                customerLine(w, oc.get());
+
+                w.text("\naccounts:");
+                if (accounts.isEmpty()) w.text("\n(none)");
+                accounts.stream().sorted(Comparator.comparing(Account::getId))
+                        .forEach(a -> accountLine(w.text("\n  "), a));
+
+                w.text("\nloans:");
+                if (loans.isEmpty()) w.text("\n(none)");
+                loans.stream().sorted(Comparator.comparing(Loan::getId))
+                        .forEach(l -> loanLine(w.text("\n  "), l));
+            };
+        }
+
+        // --- accounts for customer {id} ---
+        if (msg.startsWith("accounts for customer")) {
+            Integer id = safeInt(extractTrailingNumber(message, "accounts for customer"));
+            if (id == null) return w -> w.text("Please provide a valid numeric customer id.");
+            List<Account> accounts = accountRepository.findByCustomerId(id);
+            if (accounts.isEmpty()) return w -> w.text("No accounts found for customer ").integer(id).text(".");
+            return w -> lines(w, accounts.stream().sorted(Comparator.comparing(Account::getId)).iterator(), this::accountLine);
+        }
+
+        // --- balance for account {id} ---
+        if (msg.startsWith("balance for account")) {
+            Integer id = safeInt(extractTrailingNumber(message, "balance for account"));
+            if (id == null) return w -> w.text("Please provide a valid numeric account id.");
+            Optional<Account> oa = accountRepository.findById(id);
+            if (oa.isEmpty()) return w -> w.text("Account ").integer(id).text(" not found.");
+            Account a = oa.get();
+            return w -> w.text("Account ").integer(a.getId()).text(" (").text(a.getType()).text(") balance: ").money(a.getBalance());
+        }
+
+        // --- transactions for account {id} ---
+        if (msg.startsWith("transactions for account")) {
+            Integer id = safeInt(extractTrailingNumber(message, "transactions for account"));
+            if (id == null) return w -> w.text("Please provide a valid numeric account id.");
+            List<Transaction> txs = transactionRepository.findByAccountIdOrderByTimestampDesc(id);
+            if (txs.isEmpty()) return w -> w.text("No transactions found for account ").integer(id).text(".");
+            return w -> lines(w, txs.iterator(), this::transactionLine);
+        }
+
+        // --- loans for customer {id} ---
+        if (msg.startsWith("loans for customer")) {
+            Integer id = safeInt(extractTrailingNumber(message, "loans for customer"));
+            if (id == null) return w -> w.text("Please provide a valid numeric customer id.");
+            List<Loan> loans = loanRepository.findByCustomerId(id);
+            if (loans.isEmpty()) return w -> w.text("No loans found for customer ").integer(id).text(".");
+            return w -> lines(w, loans.stream().sorted(Comparator.comparing(Loan::getId)).iterator(), this::loanLine);
+        }
+
+        // default help
+        return this::help;
+    }
+
+    // ---------- row formatters (no String.format; see TextWriter) ----------
+
+    // customer 1: John Doe (john@example.com)
+    private void customerLine(TextWriter w, Customer c) {
+        w.text("customer ").integer(c.getId()).text(": ").text(c.getFullName())
+                .text(" (").text(c.getEmail()).ch(')');
+    }
+
+    // account 1001: CHECKING, balance=1500.00
+    private void accountLine(TextWriter w, Account a) {
+        w.text("account ").integer(a.getId()).text(": ").text(a.getType())
+                .text(", balance=").money(a.getBalance());
+    }
+
+    // loan 2001: amount=15000.00, status=ACTIVE
+    private void loanLine(TextWriter w, Loan l) {
+        w.text("loan ").integer(l.getId()).text(": amount=").money(l.getAmount())
+                .text(", status=").text(l.getStatus());
+    }
+
+    // [2025-01-31 09:15] DEPOSIT 100.00 - Salary
+    private void transactionLine(TextWriter w, Transaction t) {
+        w.ch('[');
+        if (t.getTimestamp() == null) w.text("no-date");
+        else w.dateTime(t.getTimestamp());
+        w.text("] ").text(t.getType()).ch(' ').money(t.getAmount()).text(" - ")
+                .text(t.getDescription() == null ? "" : t.getDescription());
+    }
+
+    private static <T> void lines(TextWriter w, Iterator<T> rows, BiConsumer<TextWriter, T> line) {
+        boolean first = true;
+        while (rows.hasNext()) {
+            if (!first) w.newline();
+            line.accept(w, rows.next());
+            first = false;
         }
     }
 
     // ---------- helpers ----------
 
-    private String help() {
-        return "Hi! I can answer:\n"
+    private void help(TextWriter w) {
+        w.text("Hi! I can answer:\n"
                 + "• list customers\n"
                 + "• customer {id}\n"
                 + "• accounts for customer {id}\n"
                 + "• balance for account {id}\n"
                 + "• transactions for account {id}\n"
-                + "• loans for customer {id}\n";
+                + "• loans for customer {id}\n");
     }
 
     private Integer safeInt(String s) {
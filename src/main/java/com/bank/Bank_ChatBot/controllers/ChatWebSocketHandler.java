@@ -0,0 +1,176 @@
+package com.bank.Bank_ChatBot.controllers;
+
+import com.bank.Bank_ChatBot.admission.AdmissionService;
+import com.bank.Bank_ChatBot.admission.AdmissionService.Permit;
+import com.bank.Bank_ChatBot.deadline.Deadline;
+import com.bank.Bank_ChatBot.deadline.DeadlinePolicy;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One long-lived chat channel per browser session (ws /ws/chat).
+ *
+ * Frames are small JSON objects; {@code id} is the client's correlation id and is echoed back,
+ * so several messages can be in flight on one connection and answered out of order:
+ * <pre>
+ *   client -> {"t":"hello","key":"..."}          optional, binds the API key to the session
+ *   client -> {"t":"chat","id":"cid-1","m":"balance for id 1"}    optional "timeoutMs", as X-Request-Timeout-Ms
+ *   server <- {"t":"reply","id":"cid-1","body":{"reply":"...","data":{...}}}
+ *   client -> {"t":"ping"}                        server <- {"t":"pong"}
+ * </pre>
+ * An unparseable frame is answered with an error carrying its {@code id} when one can be read.
+ */
+@Component
+public class ChatWebSocketHandler extends TextWebSocketHandler {
+
+    private static final String ATTR_API_KEY = "apiKey";
+    private static final String ATTR_SENDER = "sender";
+    private static final String ATTR_IN_FLIGHT = "inFlight";
+
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_LIMIT = 512 * 1024;
+    private static final int MAX_IN_FLIGHT_PER_SESSION = 16;
+    private static final Pattern ID_FIELD = Pattern.compile("\"id\"\\s*:\\s*\"([^\"\\\\]{1,128})\"");
+
+    private final ChatController chat;
+    private final AdmissionService admission;
+    private final ObjectMapper json;
+    private final DeadlinePolicy deadlines;
+    private final ExecutorService workers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ws-chat-", 0).factory());
+
+    public ChatWebSocketHandler(ChatController chat, AdmissionService admission, ObjectMapper json,
+                                DeadlinePolicy deadlines) {
+        this.chat = chat;
+        this.admission = admission;
+        this.json = json;
+        this.deadlines = deadlines;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // replies are sent from worker threads; the decorator serializes concurrent sends
+        session.getAttributes().put(ATTR_SENDER,
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT));
+        session.getAttributes().put(ATTR_IN_FLIGHT, new AtomicInteger());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        JsonNode frame;
+        try {
+            frame = json.readTree(message.getPayload());
+        } catch (IOException ex) {
+            send(session, frame("error", salvageId(message.getPayload()), errorBody("Malformed frame.", "ValidationError")));
+            return;
+        }
+
+        String type = frame.path("t").asText("chat");
+        String id = frame.hasNonNull("id") ? frame.get("id").asText() : null;
+
+        switch (type) {
+            case "ping" -> send(session, frame("pong", id, null));
+            case "hello" -> {
+                String key = frame.path("key").asText("").trim();
+                if (key.isEmpty()) session.getAttributes().remove(ATTR_API_KEY);
+                else session.getAttributes().put(ATTR_API_KEY, key);
+            }
+            case "chat" -> {
+                AtomicInteger inFlight = (AtomicInteger) session.getAttributes().get(ATTR_IN_FLIGHT);
+                if (inFlight.incrementAndGet() > MAX_IN_FLIGHT_PER_SESSION) {
+                    inFlight.decrementAndGet();
+                    send(session, frame("error", id, errorBody("Too many requests in flight on this connection.", "Busy")));
+                    return;
+                }
+                // same per-key buckets as the HTTP endpoints, applied per message
+                Permit permit = admission.tryAcquire((String) session.getAttributes().get(ATTR_API_KEY), clientAddress(session));
+                if (!permit.admitted()) {
+                    inFlight.decrementAndGet();
+                    String error = permit.outcome() == AdmissionService.Outcome.OVERLOADED ? "Overloaded" : "RateLimited";
+                    send(session, frame("error", id, errorBody("Too many requests. Please slow down.", error)));
+                    return;
+                }
+                String text = frame.path("m").asText("");
+                Deadline deadline = deadlines.start(frame.path("timeoutMs").asText(null));
+                try {
+                    workers.execute(() -> {
+                        try {
+                            send(session, frame("reply", id, Deadline.within(deadline, () -> chat.respond(text, "ws"))));
+                        } catch (IOException ex) {
+                            ex.printStackTrace();
+                        } finally {
+                            deadlines.finish(deadline);
+                            admission.release(permit);
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                } catch (RejectedExecutionException ex) {
+                    // shutting down: the task never ran, so give back what it was holding
+                    admission.release(permit);
+                    inFlight.decrementAndGet();
+                    send(session, frame("error", id, errorBody("Server is shutting down. Please try again.", "Unavailable")));
+                }
+            }
+            default -> send(session, frame("error", id, errorBody("Unknown frame type '" + type + "'.", "ValidationError")));
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws IOException {
+        if (session.isOpen()) session.close(CloseStatus.SERVER_ERROR);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    // ----------------------------- Helpers ------------------------------
+
+    private void send(WebSocketSession session, Map<String, Object> frame) throws IOException {
+        WebSocketSession sender = (WebSocketSession) session.getAttributes().getOrDefault(ATTR_SENDER, session);
+        if (!sender.isOpen()) return;
+        sender.sendMessage(new TextMessage(json.writeValueAsString(frame)));
+    }
+
+    private static String clientAddress(WebSocketSession session) {
+        InetSocketAddress remote = session.getRemoteAddress();
+        return remote == null || remote.getAddress() == null ? null : remote.getAddress().getHostAddress();
+    }
+
+    // best effort, so the client can still settle the request a broken frame belonged to
+    private static String salvageId(String payload) {
+        Matcher m = ID_FIELD.matcher(payload);
+        return m.find() ? m.group(1) : null;
+    }
+
+    private static Map<String, Object> frame(String type, String id, Object body) {
+        Map<String, Object> f = new LinkedHashMap<>();
+        f.put("t", type);
+        if (id != null) f.put("id", id);
+        if (body != null) f.put("body", body);
+        return f;
+    }
+
+    private static Map<String, Object> errorBody(String reply, String error) {
+        return Map.of("reply", reply, "data", Map.of("error", error));
+    }
+}
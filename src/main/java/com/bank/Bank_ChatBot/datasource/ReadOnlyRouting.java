@@ -0,0 +1,33 @@
+package com.bank.Bank_ChatBot.datasource;
+
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Marks the current thread's JDBC work as read-only so {@link ReplicaRoutingDataSource} may
+ * serve it from a replica. Read-only Spring transactions (e.g. Spring Data finders) count too.
+ * Harmless when routing is disabled.
+ */
+public final class ReadOnlyRouting {
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private ReadOnlyRouting() {}
+
+    public static <T> T onReplica(Supplier<T> work) {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) READ_ONLY.remove();
+            else READ_ONLY.set(previous);
+        }
+    }
+
+    public static boolean isReadOnly() {
+        return Boolean.TRUE.equals(READ_ONLY.get())
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,124 @@
+package com.bank.Bank_ChatBot.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only work ({@link ReadOnlyRouting}) to replica pools round-robin and everything
+ * else to the primary.
+ *
+ * - Failover: a replica that fails to hand out a connection is skipped for {@code cooldown};
+ *   if every replica is down, reads go to the primary.
+ * - Read-your-writes: after a read-write Spring transaction that used the primary commits,
+ *   reads stay on the primary for {@code stickiness} so they can't observe replica lag.
+ *   Primary reads outside a transaction (autocommit JdbcTemplate, e.g. a deliberate primary
+ *   read) don't move the clock; code writing that way calls {@link #recordWrite()}. The window
+ *   is global: reads are batched across customers, so there is no single owner to key it by.
+ *
+ * Wrap in a LazyConnectionDataSourceProxy so the routing decision is made at the first
+ * statement, after a transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long cooldownNanos;
+    private final long stickinessNanos;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLongArray downUntil;
+    private final AtomicLong lastWrite = new AtomicLong(System.nanoTime() - TimeUnit.DAYS.toNanos(1));
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    long cooldownMillis, long stickinessMillis) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(cooldownMillis);
+        this.stickinessNanos = TimeUnit.MILLISECONDS.toNanos(stickinessMillis);
+        this.downUntil = new AtomicLongArray(this.replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(username, password);
+    }
+
+    public DataSource getPrimary() { return primary; }
+
+    public List<DataSource> getReplicas() { return replicas; }
+
+    /** Closes the replica pools; the primary is owned (and closed) by whoever created it. */
+    @Override
+    public void close() throws Exception {
+        for (DataSource ds : replicas) {
+            if (ds instanceof AutoCloseable c) c.close();
+        }
+    }
+
+    /** Starts the read-your-writes window now; for writes made outside a Spring transaction. */
+    public void recordWrite() {
+        lastWrite.set(System.nanoTime());
+    }
+
+    // ----------------------------- internals ------------------------------
+
+    private Connection route(String user, String pass) throws SQLException {
+        long now = System.nanoTime();
+        if (!ReadOnlyRouting.isReadOnly()) {
+            recordWriteOnCommit();
+            return open(primary, user, pass);
+        }
+        if (replicas.isEmpty() || now - lastWrite.get() < stickinessNanos) {
+            return open(primary, user, pass);
+        }
+
+        int n = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            int idx = (start + i) % n;
+            if (now - downUntil.get(idx) < 0) continue;
+            try {
+                return open(replicas.get(idx), user, pass);
+            } catch (SQLException ex) {
+                downUntil.set(idx, now + cooldownNanos);
+                System.out.println("⚠️ replica " + idx + " unavailable, failing over: " + ex.getMessage());
+            }
+        }
+        return open(primary, user, pass);
+    }
+
+    // needs the transaction set up before the connection is fetched: ReadReplicaConfig puts
+    // a LazyConnectionDataSourceProxy in front for that
+    private void recordWriteOnCommit() {
+        if (stickinessNanos <= 0 || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) recordWrite();
+            }
+        });
+    }
+
+    private static Connection open(DataSource ds, String user, String pass) throws SQLException {
+        return user == null ? ds.getConnection() : ds.getConnection(user, pass);
+    }
+}
@@ -0,0 +1,123 @@
+package com.bank.Bank_ChatBot.deadline;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Point in time by which a chat request must be answered. Set per request by
+ * {@link DeadlineFilter} (or the WebSocket handler) and carried on the current thread, like
+ * ReadOnlyRouting; work handed to another thread takes it along with {@link #bind} or
+ * {@link #within}.
+ *
+ * Each dependency call sizes its own timeout from {@link #remainingMillis()} and calls
+ * {@link #check} first, so once the budget is spent no new NLP or JDBC work starts. The first
+ * stage that finds it spent is remembered for the chat.deadline metrics.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long budgetMillis;
+    private final long expiresAtNanos;
+    private volatile String cancelledAt;
+
+    private Deadline(long budgetMillis) {
+        this.budgetMillis = budgetMillis;
+        this.expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    public static Deadline afterMillis(long budgetMillis) {
+        return new Deadline(budgetMillis);
+    }
+
+    /** The current thread's deadline, or null when none is set (startup, warmup, batch jobs). */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T within(Deadline deadline, Supplier<T> work) {
+        Deadline previous = enter(deadline);
+        try {
+            return work.get();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    /** {@code work} run under {@code deadline} on whatever thread executes it (e.g. a Reactor scheduler). */
+    public static <T> Callable<T> bind(Deadline deadline, Callable<T> work) {
+        if (deadline == null) return work;
+        return () -> {
+            Deadline previous = enter(deadline);
+            try {
+                return work.call();
+            } finally {
+                exit(previous);
+            }
+        };
+    }
+
+    /** Sets the current thread's deadline and returns the one it replaces, for {@link #exit}. */
+    static Deadline enter(Deadline deadline) {
+        Deadline previous = CURRENT.get();
+        if (deadline == null) CURRENT.remove();
+        else CURRENT.set(deadline);
+        return previous;
+    }
+
+    static void exit(Deadline previous) {
+        if (previous == null) CURRENT.remove();
+        else CURRENT.set(previous);
+    }
+
+    /** Throws if the current thread's deadline (if any) has passed. */
+    public static void checkCurrent(String stage) {
+        Deadline d = CURRENT.get();
+        if (d != null) d.check(stage);
+    }
+
+    public void check(String stage) {
+        if (expired()) throw cancel(stage);
+    }
+
+    public DeadlineExceededException cancel(String stage) {
+        if (cancelledAt == null) cancelledAt = stage;
+        return new DeadlineExceededException(stage, budgetMillis);
+    }
+
+    public boolean expired() {
+        return System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    public long remainingNanos() {
+        return Math.max(0, expiresAtNanos - System.nanoTime());
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    public long budgetMillis() { return budgetMillis; }
+
+    /** Stage that was cancelled for lack of time, or null. */
+    public String cancelledAt() { return cancelledAt; }
+
+    /**
+     * Timeout in whole seconds for a JDBC statement: the configured one, shortened to what is
+     * left of the current deadline (rounded up, since 0 would mean "no timeout").
+     */
+    public static int queryTimeoutSeconds(int configuredSeconds, String stage) {
+        Deadline d = CURRENT.get();
+        if (d == null) return configuredSeconds;
+        d.check(stage);
+        int left = (int) Math.max(1, (d.remainingMillis() + 999) / 1000);
+        return configuredSeconds > 0 ? Math.min(configuredSeconds, left) : left;
+    }
+
+    /** The later of two deadlines; null (no deadline) wins. */
+    public static Deadline latest(Deadline a, Deadline b) {
+        if (a == null || b == null) return null;
+        return a.expiresAtNanos - b.expiresAtNanos >= 0 ? a : b;
+    }
+}
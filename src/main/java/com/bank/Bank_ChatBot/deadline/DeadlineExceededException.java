@@ -0,0 +1,15 @@
+package com.bank.Bank_ChatBot.deadline;
+
+/** Thrown instead of starting (or continuing to wait for) work the request no longer has time for. */
+public class DeadlineExceededException extends RuntimeException {
+
+    private final String stage;
+
+    public DeadlineExceededException(String stage, long budgetMillis) {
+        // no stack trace: expected under load, like BulkheadFullException
+        super("Request deadline of " + budgetMillis + " ms passed before " + stage, null, false, false);
+        this.stage = stage;
+    }
+
+    public String getStage() { return stage; }
+}
@@ -0,0 +1,67 @@
+package com.bank.Bank_ChatBot.deadline;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/** Starts each chat request's {@link Deadline} and makes it current on the request thread. */
+@Component
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final DeadlinePolicy policy;
+
+    public DeadlineFilter(DeadlinePolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.equals("/chat") || path.startsWith("/chat/") || path.startsWith("/api/customers"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Deadline deadline = policy.start(request.getHeader(DeadlinePolicy.HEADER));
+        Deadline previous = Deadline.enter(deadline);
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // SSE replies finish after this thread returns
+                async = true;
+                request.getAsyncContext().addListener(new FinishOnComplete(deadline));
+            }
+        } finally {
+            Deadline.exit(previous);
+            if (!async) policy.finish(deadline);
+        }
+    }
+
+    private final class FinishOnComplete implements AsyncListener {
+        private final Deadline deadline;
+        private boolean finished;
+
+        FinishOnComplete(Deadline deadline) { this.deadline = deadline; }
+
+        private synchronized void finish() {
+            if (finished) return;
+            finished = true;
+            policy.finish(deadline);
+        }
+
+        @Override public void onComplete(AsyncEvent event) { finish(); }
+        @Override public void onTimeout(AsyncEvent event) { finish(); }
+        @Override public void onError(AsyncEvent event) { finish(); }
+        @Override public void onStartAsync(AsyncEvent event) { }
+    }
+}
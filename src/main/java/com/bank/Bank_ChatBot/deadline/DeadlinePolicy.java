@@ -0,0 +1,65 @@
+package com.bank.Bank_ChatBot.deadline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-request budget: the client's {@value #HEADER} (WebSocket: the frame's "timeoutMs") when
+ * given, else bank.deadline.default-ms; never more than bank.deadline.max-ms.
+ *
+ * Metrics, one per finished request: chat.deadline.requests{outcome=met|late|cancelled}, where
+ * late = answered after the deadline without any stage noticing, and
+ * chat.deadline.cancelled{stage} for the stage that gave up.
+ */
+@Component
+public class DeadlinePolicy {
+
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private final long defaultMillis;
+    private final long maxMillis;
+    private final MeterRegistry meters;
+    private final Counter met;
+    private final Counter late;
+    private final Counter cancelled;
+
+    public DeadlinePolicy(MeterRegistry meters,
+                          @Value("${bank.deadline.default-ms:2000}") long defaultMillis,
+                          @Value("${bank.deadline.max-ms:10000}") long maxMillis) {
+        this.meters = meters;
+        this.defaultMillis = defaultMillis;
+        this.maxMillis = Math.max(defaultMillis, maxMillis);
+        this.met = Counter.builder("chat.deadline.requests").tag("outcome", "met").register(meters);
+        this.late = Counter.builder("chat.deadline.requests").tag("outcome", "late").register(meters);
+        this.cancelled = Counter.builder("chat.deadline.requests").tag("outcome", "cancelled").register(meters);
+    }
+
+    /** Starts the clock; {@code requestedMillis} may be null or junk (then the default applies). */
+    public Deadline start(String requestedMillis) {
+        long budget = defaultMillis;
+        if (requestedMillis != null && !requestedMillis.isBlank()) {
+            try {
+                long requested = Long.parseLong(requestedMillis.trim());
+                if (requested > 0) budget = Math.min(requested, maxMillis);
+            } catch (NumberFormatException ignored) {
+                // keep the default
+            }
+        }
+        return Deadline.afterMillis(budget);
+    }
+
+    public void finish(Deadline d) {
+        String stage = d.cancelledAt();
+        if (stage != null) {
+            cancelled.increment();
+            Counter.builder("chat.deadline.cancelled").tag("stage", stage).register(meters).increment();
+        } else if (d.expired()) {
+            late.increment();
+        } else {
+            met.increment();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bank.Bank_ChatBot.deadline;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+/**
+ * HTTP client whose connect and read timeouts are the configured ones, cut to what is left of
+ * the calling thread's {@link Deadline}. Refuses to open a connection once it has passed.
+ */
+public class DeadlineRequestFactory extends SimpleClientHttpRequestFactory {
+
+    private final String stage;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+
+    public DeadlineRequestFactory(String stage, int connectTimeoutMillis, int readTimeoutMillis) {
+        this.stage = stage;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+        super.prepareConnection(connection, httpMethod);
+        int connect = connectTimeoutMillis;
+        int read = readTimeoutMillis;
+        Deadline d = Deadline.current();
+        if (d != null) {
+            d.check(stage);
+            int left = (int) Math.max(1, Math.min(Integer.MAX_VALUE, d.remainingMillis()));
+            connect = Math.min(connect, left);
+            read = Math.min(read, left);
+        }
+        connection.setConnectTimeout(connect);
+        connection.setReadTimeout(read);
+    }
+}
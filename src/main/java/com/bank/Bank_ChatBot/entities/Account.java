@@ -1,10 +1,13 @@
 package com.bank.Bank_ChatBot.entities;
 
+import com.bank.Bank_ChatBot.service.CustomerSummaryListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.util.List;
 
 @Entity
 @Table(name = "accounts")
+@EntityListeners(CustomerSummaryListener.class)   // keeps customer_summary current
 public class Account {
 
     @Id
@@ -20,8 +23,14 @@ public class Account {
 
     @ManyToOne
     @JoinColumn(name = "customer_id", nullable = false) // already correct
+    @JsonIgnore   // back reference: serialized from the parent's list only
     private Customer customer;
 
+    // owner as last loaded or written, so a reassignment also refreshes the previous owner's summary
+    @Transient
+    @JsonIgnore
+    private Integer loadedCustomerId;
+
     // getters/setters...
 
 
@@ -37,6 +46,8 @@ public class Account {
     public void setBalance(Double balance) { this.balance = balance; }
     public Customer getCustomer() { return customer; }
     public void setCustomer(Customer customer) { this.customer = customer; }
+    public Integer getLoadedCustomerId() { return loadedCustomerId; }
+    public void setLoadedCustomerId(Integer loadedCustomerId) { this.loadedCustomerId = loadedCustomerId; }
     public List<Transaction> getTransactions() { return transactions; }
     public void setTransactions(List<Transaction> transactions) { this.transactions = transactions; }
 }
@@ -1,9 +1,12 @@
 package com.bank.Bank_ChatBot.entities;
 
+import com.bank.Bank_ChatBot.service.CustomerSummaryListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "loans")
+@EntityListeners(CustomerSummaryListener.class)   // keeps customer_summary current
 public class Loan {
 
     @Id
@@ -13,6 +16,7 @@ public class Loan {
 
     @ManyToOne
     @JoinColumn(name = "customer_id", nullable = false)
+    @JsonIgnore   // back reference: serialized from the parent's list only
     private Customer customer;
 
     @Column(name = "amount")
@@ -21,6 +25,11 @@ public class Loan {
     @Column(name = "status")
     private String status;
 
+    // owner as last loaded or written, so a reassignment also refreshes the previous owner's summary
+    @Transient
+    @JsonIgnore
+    private Integer loadedCustomerId;
+
     // getters/setters...
 
 
@@ -28,6 +37,8 @@ public class Loan {
     public void setId(Integer id) { this.id = id; }
     public Customer getCustomer() { return customer; }
     public void setCustomer(Customer customer) { this.customer = customer; }
+    public Integer getLoadedCustomerId() { return loadedCustomerId; }
+    public void setLoadedCustomerId(Integer loadedCustomerId) { this.loadedCustomerId = loadedCustomerId; }
     public Double getAmount() { return amount; }
     public void setAmount(Double amount) { this.amount = amount; }
     public String getStatus() { return status; }
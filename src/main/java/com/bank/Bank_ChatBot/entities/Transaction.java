@@ -1,10 +1,13 @@
 package com.bank.Bank_ChatBot.entities;
 
+import com.bank.Bank_ChatBot.analytics.SpendingAnalyticsListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "transactions")
+@EntityListeners(SpendingAnalyticsListener.class)   // keeps cached spending analytics current
 public class Transaction {
 
     @Id
@@ -14,6 +17,7 @@ public class Transaction {
 
     @ManyToOne
     @JoinColumn(name = "account_id", nullable = false)
+    @JsonIgnore   // back reference: serialized from the parent's list only
     private Account account;
 
     @Column(name = "type")
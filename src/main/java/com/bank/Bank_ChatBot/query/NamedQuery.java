@@ -0,0 +1,175 @@
+package com.bank.Bank_ChatBot.query;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.bank.Bank_ChatBot.deadline.Deadline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * One named SELECT with its row mapper and statement settings. Created through
+ * {@link QueryRegistry}; keep the instance in a field and reuse it.
+ *
+ * - Rows go straight from the ResultSet into {@code R} (by column index), no per-row maps.
+ * - Fetch size and query timeout are set on every statement; 0 leaves the driver default.
+ *   (MySQL only honours fetch size with useCursorFetch=true.) Under a request {@link Deadline}
+ *   the timeout is cut to the time left (whole seconds, rounded up), and a query whose
+ *   deadline has already passed is not sent.
+ * - Timed as chat.query{query=name,outcome=success|error}.
+ * - SQL with one {@code %s} takes an IN (...) list via the {@code *In} methods. The list is
+ *   padded to the next power of two by repeating its last value, so a batch query has a handful
+ *   of distinct SQL strings and the driver / server statement caches keep hitting.
+ * - {@link #forEachUnion} runs the SQL once per key as the branches of one UNION ALL, for
+ *   per-key ORDER BY ... LIMIT that an IN list can't express. Padding branches bind a NULL
+ *   key, which matches nothing.
+ */
+public final class NamedQuery<R> {
+
+    private final String name;
+    private final String sql;
+    private final RowMapper<R> mapper;
+    private final int fetchSize;
+    private final int timeoutSeconds;
+    private final JdbcTemplate jdbc;
+    private final Timer success;
+    private final Timer error;
+
+    // IN-list / UNION bucket size -> SQL text
+    private final ConcurrentMap<Integer, String> shapes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, String> unions = new ConcurrentHashMap<>();
+
+    NamedQuery(String name, String sql, RowMapper<R> mapper, int fetchSize, int timeoutSeconds,
+               JdbcTemplate jdbc, MeterRegistry meters) {
+        this.name = name;
+        this.sql = sql;
+        this.mapper = mapper;
+        this.fetchSize = fetchSize;
+        this.timeoutSeconds = timeoutSeconds;
+        this.jdbc = jdbc;
+        this.success = Timer.builder("chat.query").tag("query", name).tag("outcome", "success").register(meters);
+        this.error = Timer.builder("chat.query").tag("query", name).tag("outcome", "error").register(meters);
+    }
+
+    public String getName() { return name; }
+    public String getSql() { return sql; }
+    public int getFetchSize() { return fetchSize; }
+    public int getTimeoutSeconds() { return timeoutSeconds; }
+
+    public List<R> list(Object... args) {
+        List<R> out = new ArrayList<>();
+        run(sql, args, 0, out::add);
+        return out;
+    }
+
+    /** First row only (the statement is capped at one row). */
+    public Optional<R> first(Object... args) {
+        List<R> out = new ArrayList<>(1);
+        run(sql, args, 1, out::add);
+        return out.isEmpty() ? Optional.empty() : Optional.ofNullable(out.get(0));
+    }
+
+    public void forEach(Consumer<? super R> sink, Object... args) {
+        run(sql, args, 0, sink);
+    }
+
+    /** As {@link #forEach}, but the statement stops after {@code maxRows} rows. */
+    public void forEachUpTo(int maxRows, Consumer<? super R> sink, Object... args) {
+        run(sql, args, maxRows, sink);
+    }
+
+    /** Binds {@code in} to the {@code %s} list, followed by {@code trailing}. Empty {@code in} runs nothing. */
+    public void forEachIn(Collection<?> in, Consumer<? super R> sink, Object... trailing) {
+        if (in.isEmpty()) return;
+        int bucket = bucket(in.size());
+        Object[] args = new Object[bucket + trailing.length];
+        int i = 0;
+        Object last = null;
+        for (Object v : in) args[i++] = last = v;
+        while (i < bucket) args[i++] = last;   // duplicates don't change an IN (...) result
+        System.arraycopy(trailing, 0, args, bucket, trailing.length);
+        run(shapes.computeIfAbsent(bucket, b -> sql.formatted(String.join(",", Collections.nCopies(b, "?")))),
+                args, 0, sink);
+    }
+
+    /**
+     * One UNION ALL statement with a branch per key; each branch binds its key to the first
+     * {@code ?} and {@code perKey} to the rest. Rows come back grouped by branch, but callers
+     * should not rely on order across branches. Empty {@code keys} runs nothing.
+     */
+    public void forEachUnion(Collection<?> keys, Consumer<? super R> sink, Object... perKey) {
+        if (keys.isEmpty()) return;
+        int bucket = bucket(keys.size());
+        int width = perKey.length + 1;
+        Object[] args = new Object[bucket * width];
+        int i = 0;
+        for (Object k : keys) {
+            args[i] = k;
+            System.arraycopy(perKey, 0, args, i + 1, perKey.length);
+            i += width;
+        }
+        for (; i < args.length; i += width) {
+            System.arraycopy(perKey, 0, args, i + 1, perKey.length);   // key stays null
+        }
+        run(unions.computeIfAbsent(bucket, b -> String.join(" UNION ALL ",
+                Collections.nCopies(b, "(" + sql.strip() + ")"))), args, 0, sink);
+    }
+
+    public List<R> listIn(Collection<?> in, Object... trailing) {
+        List<R> out = new ArrayList<>();
+        forEachIn(in, out::add, trailing);
+        return out;
+    }
+
+    // ----------------------------- internals ------------------------------
+
+    private void run(String text, Object[] args, int maxRows, Consumer<? super R> sink) {
+        Deadline.checkCurrent("db");
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            jdbc.query(con -> prepare(con, text, maxRows), new ArgumentPreparedStatementSetter(args), (ResultSet rs) -> {
+                int rowNum = 0;
+                while (rs.next()) sink.accept(mapper.mapRow(rs, rowNum++));
+                return null;
+            });
+            ok = true;
+        } catch (QueryTimeoutException ex) {
+            Deadline d = Deadline.current();
+            if (d != null && d.expired()) throw d.cancel("db");   // timed out on our budget, not the configured timeout
+            throw ex;
+        } finally {
+            (ok ? success : error).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private PreparedStatement prepare(Connection con, String text, int maxRows) throws SQLException {
+        PreparedStatement ps = con.prepareStatement(text);
+        if (fetchSize > 0) ps.setFetchSize(fetchSize);
+        int timeout = Deadline.queryTimeoutSeconds(timeoutSeconds, "db");
+        if (timeout > 0) ps.setQueryTimeout(timeout);
+        if (maxRows > 0) ps.setMaxRows(maxRows);
+        return ps;
+    }
+
+    static int bucket(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+}
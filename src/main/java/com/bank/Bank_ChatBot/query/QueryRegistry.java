@@ -0,0 +1,57 @@
+package com.bank.Bank_ChatBot.query;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * All named queries in one place. Services register their statements once (constructor) and
+ * keep the returned {@link NamedQuery}. Defaults given in code can be overridden per query:
+ *
+ *   bank.query.{name}.fetch-size
+ *   bank.query.{name}.timeout-seconds
+ */
+@Component
+public class QueryRegistry {
+
+    private final JdbcTemplate jdbc;
+    private final MeterRegistry meters;
+    private final Environment env;
+    private final Map<String, NamedQuery<?>> queries = new ConcurrentSkipListMap<>();
+
+    public QueryRegistry(JdbcTemplate jdbc, MeterRegistry meters, Environment env) {
+        this.jdbc = jdbc;
+        this.meters = meters;
+        this.env = env;
+    }
+
+    public <R> NamedQuery<R> register(String name, String sql, RowMapper<R> mapper, int fetchSize, int timeoutSeconds) {
+        String p = "bank.query." + name + ".";
+        NamedQuery<R> q = new NamedQuery<>(name, sql, mapper,
+                env.getProperty(p + "fetch-size", Integer.class, fetchSize),
+                env.getProperty(p + "timeout-seconds", Integer.class, timeoutSeconds),
+                jdbc, meters);
+        if (queries.putIfAbsent(name, q) != null) {
+            throw new IllegalStateException("Query '" + name + "' is already registered");
+        }
+        return q;
+    }
+
+    public Optional<NamedQuery<?>> get(String name) {
+        return Optional.ofNullable(queries.get(name));
+    }
+
+    /** Sorted by name. */
+    public Collection<NamedQuery<?>> all() {
+        return Collections.unmodifiableCollection(queries.values());
+    }
+}
@@ -1,108 +1,238 @@
 package com.bank.Bank_ChatBot.service;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
 
-import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.bank.Bank_ChatBot.admission.AdaptiveBulkhead;
+import com.bank.Bank_ChatBot.datasource.ReadOnlyRouting;
+import com.bank.Bank_ChatBot.query.NamedQuery;
+import com.bank.Bank_ChatBot.query.QueryRegistry;
+import com.bank.Bank_ChatBot.service.CustomerSummaryProjection.CustomerSummary;
+
+import jakarta.annotation.PreDestroy;
+
 @Service
 public class BankingService {
 
-    private final JdbcTemplate jdbc;
+    private final AdaptiveBulkhead db;
+    private final CustomerSummaryProjection summaries;
 
-    public BankingService(JdbcTemplate jdbc) {
-        this.jdbc = jdbc;
-    }
+    // Per-customer lookups from concurrent chats are coalesced into one IN (...) query per window.
+    private final ScheduledExecutorService batchTimer;
+    private final ExecutorService batchDispatcher;
+    private final BatchLoader<TxKey, List<TransactionRow>> transactionLoader;
+    private final BatchLoader<Integer, List<LoanStatus>> loanLoader;
+    private final BatchLoader<TxKey, List<AccountActivity>> accountLoader;
 
-    /** Find customer_id by exact full_name (case-insensitive). */
-    public Optional<Integer> findCustomerIdByName(String fullName) {
-        final String sql = """
+    // Batch queries are sized for one batch (bank.batch.max-size customers); override per query
+    // with bank.query.{name}.fetch-size / timeout-seconds.
+    private final NamedQuery<Integer> customerIdByName;
+    private final NamedQuery<TransactionRow> recentTransactions;
+    private final NamedQuery<CustomerLoan> loansByCustomer;
+    private final NamedQuery<AccountTxRow> accountsWithRecent;
+
+    public BankingService(QueryRegistry queries,
+                          @Qualifier("dbBulkhead") AdaptiveBulkhead db,
+                          CustomerSummaryProjection summaries,
+                          @Value("${bank.batch.window-ms:2}") long batchWindowMs,
+                          @Value("${bank.batch.max-size:100}") int batchMaxSize) {
+        this.db = db;
+        this.summaries = summaries;
+        this.customerIdByName = queries.register("customer.id-by-name", """
             SELECT customer_id
             FROM customers
             WHERE UPPER(TRIM(full_name)) = UPPER(?)
-        """;
-        try {
-            Integer id = jdbc.queryForObject(sql, Integer.class, fullName);
-            return Optional.ofNullable(id);
-        } catch (EmptyResultDataAccessException ex) {
-            return Optional.empty();
-        }
-    }
-
-    /** Latest account balance for a customer (by accounts.created_at desc). */
-    public Optional<BigDecimal> getLatestBalance(Integer customerId) {
-        final String sql = """
-            SELECT balance
-            FROM accounts
-            WHERE customer_id = ?
-            ORDER BY created_at DESC
-            LIMIT 1
-        """;
-        try {
-            BigDecimal amt = jdbc.queryForObject(sql, BigDecimal.class, customerId);
-            return Optional.ofNullable(amt);
-        } catch (EmptyResultDataAccessException ex) {
-            return Optional.empty();
-        }
-    }
-
-    /** Last N transactions for a customer across accounts. */
-    public List<Map<String, Object>> getTransactionsByCustomerId(Integer customerId, int n) {
-        final String sql = """
-            SELECT t.transaction_date, t.amount, t.type, t.description
+        """, (rs, i) -> rs.getInt(1), 1, 2);
+        // one LIMIT branch per customer (UNION ALL): each reads only that customer's newest rows,
+        // as the single-customer query did, instead of ranking their whole history
+        this.recentTransactions = queries.register("transactions.recent", """
+            SELECT a.customer_id, t.transaction_date, t.amount, t.type, t.description
             FROM transactions t
             JOIN accounts a ON a.account_id = t.account_id
             WHERE a.customer_id = ?
             ORDER BY t.transaction_date DESC
             LIMIT ?
-        """;
-        return jdbc.queryForList(sql, customerId, n);
+        """, (rs, i) -> new TransactionRow(rs.getInt(1), rs.getTimestamp(2), rs.getBigDecimal(3),
+                rs.getString(4), rs.getString(5)), 500, 5);
+        this.loansByCustomer = queries.register("loans.by-customer", """
+            SELECT customer_id, loan_id, status, amount
+            FROM loans
+            WHERE customer_id IN (%s)
+            ORDER BY customer_id, end_date DESC, loan_id DESC
+        """, (rs, i) -> new CustomerLoan(rs.getInt(1),
+                new LoanStatus(rs.getInt(2), rs.getString(3), rs.getBigDecimal(4))), batchMaxSize, 5);
+        // every account plus its newest K transactions in one pass: LEFT JOIN keeps accounts
+        // without transactions (one row, null transaction columns, rn = 1)
+        this.accountsWithRecent = queries.register("accounts.with-recent-transactions", """
+            SELECT customer_id, account_id, account_type, balance,
+                   transaction_id, transaction_date, amount, type, description
+            FROM (
+                SELECT a.customer_id, a.account_id, a.account_type, a.balance,
+                       t.transaction_id, t.transaction_date, t.amount, t.type, t.description,
+                       ROW_NUMBER() OVER (PARTITION BY a.account_id
+                                          ORDER BY t.transaction_date DESC, t.transaction_id DESC) AS rn
+                FROM accounts a
+                LEFT JOIN transactions t ON t.account_id = a.account_id
+                WHERE a.customer_id IN (%s)
+            ) recent
+            WHERE rn <= ?
+            ORDER BY customer_id, account_id, rn
+        """, (rs, i) -> {
+            rs.getInt(5);
+            TransactionRow tx = rs.wasNull() ? null : new TransactionRow(rs.getInt(1), rs.getTimestamp(6),
+                    rs.getBigDecimal(7), rs.getString(8), rs.getString(9));
+            return new AccountTxRow(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getBigDecimal(4), tx);
+        }, 500, 5);
+
+        this.batchTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "batch-loader-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.batchDispatcher = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("batch-loader-", 0).factory());
+        // one bulkhead slot per batch query, not per waiting caller
+        this.transactionLoader = new BatchLoader<>("transactions", keys -> read(() -> loadTransactions(keys)),
+                List.of(), batchTimer, batchDispatcher, batchWindowMs, batchMaxSize);
+        this.loanLoader = new BatchLoader<>("loans", ids -> read(() -> loadLoans(ids)),
+                List.of(), batchTimer, batchDispatcher, batchWindowMs, batchMaxSize);
+        this.accountLoader = new BatchLoader<>("accounts", keys -> read(() -> loadAccountActivity(keys)),
+                List.of(), batchTimer, batchDispatcher, batchWindowMs, batchMaxSize);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        batchTimer.shutdownNow();
+        batchDispatcher.shutdown();
+    }
+
+    /** Find customer_id by exact full_name (case-insensitive). */
+    public Optional<Integer> findCustomerIdByName(String fullName) {
+        return read(() -> customerIdByName.first(fullName));
+    }
+
+    /** Total and per-type balances plus open loans, from the customer_summary read model (PK lookup). */
+    public Optional<CustomerSummary> getBalanceSummary(Integer customerId) {
+        return read(() -> summaries.find(customerId));
+    }
+
+    /** Last N transactions for a customer across accounts. */
+    public List<TransactionRow> getTransactionsByCustomerId(Integer customerId, int n) {
+        return transactionLoader.load(new TxKey(customerId, n));
     }
 
     /** Latest loan status for a customer. */
     public Optional<LoanStatus> getLatestLoanStatus(Integer customerId) {
-        final String sql = """
-            SELECT loan_id, status, amount
-            FROM loans
-            WHERE customer_id = ?
-            ORDER BY end_date DESC, loan_id DESC
-            LIMIT 1
-        """;
-        try {
-            return jdbc.query(sql, rs -> {
-                if (!rs.next()) return Optional.empty();
-                LoanStatus s = new LoanStatus(
-                        rs.getInt("loan_id"),
-                        rs.getString("status"),
-                        rs.getBigDecimal("amount")
-                );
-                return Optional.of(s);
-            }, customerId);
-        } catch (EmptyResultDataAccessException ex) {
-            return Optional.empty();
-        }
+        // same ordering as the loan list, so the head of the batched list is the latest loan
+        List<LoanStatus> loans = loanLoader.load(customerId);
+        return loans.isEmpty() ? Optional.empty() : Optional.of(loans.get(0));
     }
 
     /** All loans for a customer (latest first). */
     public List<LoanStatus> getLoansByCustomerId(Integer customerId) {
-        final String sql = """
-            SELECT loan_id, status, amount
-            FROM loans
-            WHERE customer_id = ?
-            ORDER BY end_date DESC, loan_id DESC
-        """;
-        return jdbc.query(sql, (rs, rowNum) -> new LoanStatus(
-                rs.getInt("loan_id"),
-                rs.getString("status"),
-                rs.getBigDecimal("amount")
-        ), customerId);
+        return loanLoader.load(customerId);
+    }
+
+    /** Every account of a customer (by account id) with its balance and newest {@code k} transactions. */
+    public List<AccountActivity> getAccountActivity(Integer customerId, int k) {
+        return accountLoader.load(new TxKey(customerId, k));
+    }
+
+    // ----------------------------- batch queries ------------------------------
+
+    private Map<TxKey, List<TransactionRow>> loadTransactions(Set<TxKey> keys) {
+        List<Integer> customerIds = keys.stream().map(TxKey::customerId).distinct().toList();
+        int maxN = keys.stream().mapToInt(TxKey::n).max().orElse(0);
+        Map<Integer, List<TransactionRow>> byCustomer = new HashMap<>();
+        recentTransactions.forEachUnion(customerIds,
+                t -> byCustomer.computeIfAbsent(t.customerId(), k -> new ArrayList<>()).add(t), maxN);
+        // UNION ALL keeps no order across branches; restore newest-first per customer
+        byCustomer.values().forEach(rows -> rows.sort(NEWEST_FIRST));
+
+        // each caller gets its own slice of the shared result
+        Map<TxKey, List<TransactionRow>> out = new HashMap<>();
+        for (TxKey key : keys) {
+            List<TransactionRow> rows = byCustomer.getOrDefault(key.customerId(), List.of());
+            out.put(key, rows.subList(0, Math.min(key.n(), rows.size())));
+        }
+        return out;
+    }
+
+    private Map<Integer, List<LoanStatus>> loadLoans(Set<Integer> customerIds) {
+        Map<Integer, List<LoanStatus>> out = new HashMap<>();
+        loansByCustomer.forEachIn(customerIds,
+                l -> out.computeIfAbsent(l.customerId(), k -> new ArrayList<>()).add(l.loan()));
+        return out;
+    }
+
+    private Map<TxKey, List<AccountActivity>> loadAccountActivity(Set<TxKey> keys) {
+        List<Integer> customerIds = keys.stream().map(TxKey::customerId).distinct().toList();
+        int maxK = keys.stream().mapToInt(TxKey::n).max().orElse(0);
+        // rows arrive ordered by customer, account, recency
+        Map<Integer, List<AccountActivity>> byCustomer = new HashMap<>();
+        accountsWithRecent.forEachIn(customerIds, row -> {
+            List<AccountActivity> accounts = byCustomer.computeIfAbsent(row.customerId(), k -> new ArrayList<>());
+            AccountActivity last = accounts.isEmpty() ? null : accounts.get(accounts.size() - 1);
+            if (last == null || !last.accountId().equals(row.accountId())) {
+                last = new AccountActivity(row.accountId(), row.accountType(), row.balance(), new ArrayList<>());
+                accounts.add(last);
+            }
+            if (row.tx() != null) last.recentTransactions().add(row.tx());
+        }, Math.max(maxK, 1));
+
+        Map<TxKey, List<AccountActivity>> out = new HashMap<>();
+        for (TxKey key : keys) {
+            List<AccountActivity> accounts = byCustomer.getOrDefault(key.customerId(), List.of());
+            out.put(key, accounts.stream().map(a -> a.limit(key.n())).toList());
+        }
+        return out;
+    }
+
+    /** Every query here is read-only: DB bulkhead slot + replica routing. */
+    private <T> T read(Supplier<T> query) {
+        return db.execute(() -> ReadOnlyRouting.onReplica(query));
     }
 
+    private record TxKey(Integer customerId, int n) {}
+
+    private static final Comparator<TransactionRow> NEWEST_FIRST = Comparator.comparing(
+            TransactionRow::transactionDate, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    // ----------------------------- rows ------------------------------
+
+    /** One transaction, newest first within a customer. */
+    public record TransactionRow(Integer customerId, Timestamp transactionDate, BigDecimal amount,
+                                 String type, String description) {}
+
+    private record CustomerLoan(Integer customerId, LoanStatus loan) {}
+
+    /** An account with its newest transactions first. */
+    public record AccountActivity(Integer accountId, String accountType, BigDecimal balance,
+                                  List<TransactionRow> recentTransactions) {
+        AccountActivity limit(int k) {
+            return recentTransactions.size() <= k ? this
+                    : new AccountActivity(accountId, accountType, balance, recentTransactions.subList(0, k));
+        }
+    }
+
+    private record AccountTxRow(Integer customerId, Integer accountId, String accountType, BigDecimal balance,
+                                TransactionRow tx) {}
+
     // --- Simple DTO for loan status ---
     public static class LoanStatus {
         private final Integer loanId;
@@ -0,0 +1,156 @@
+package com.bank.Bank_ChatBot.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import com.bank.Bank_ChatBot.deadline.Deadline;
+
+/**
+ * DataLoader-style batcher: single-key lookups arriving from concurrent requests within
+ * {@code windowMillis} (or until {@code maxBatchSize} keys are pending) are resolved with
+ * one call to {@code batchFn}. Identical keys in the same window share one future.
+ *
+ * Request deadlines: a caller waits no longer than its own {@link Deadline}. The batch runs
+ * under the latest deadline among its callers (none if any caller has none), and is skipped
+ * altogether if that has passed by the time it is dispatched.
+ *
+ * Once the timer or dispatcher refuses work (shutdown), pending lookups fail with the
+ * RejectedExecutionException instead of waiting forever.
+ */
+public class BatchLoader<K, V> {
+
+    private final String name;
+    private final Function<Set<K>, Map<K, V>> batchFn;
+    private final V missing;
+    private final ScheduledExecutorService timer;
+    private final Executor dispatcher;
+    private final long windowMillis;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    private Deadline pendingDeadline;
+    private boolean flushScheduled;
+
+    /**
+     * @param batchFn loads all keys at once; keys absent from its result resolve to {@code missing}
+     * @param timer   fires the window flush
+     * @param dispatcher runs the batch query (never the timer thread)
+     */
+    public BatchLoader(String name,
+                       Function<Set<K>, Map<K, V>> batchFn,
+                       V missing,
+                       ScheduledExecutorService timer,
+                       Executor dispatcher,
+                       long windowMillis,
+                       int maxBatchSize) {
+        this.name = name;
+        this.batchFn = batchFn;
+        this.missing = missing;
+        this.timer = timer;
+        this.dispatcher = dispatcher;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /** Blocking load; rethrows the batch failure as-is (e.g. a DataAccessException). */
+    public V load(K key) {
+        Deadline deadline = Deadline.current();
+        CompletableFuture<V> future = loadAsync(key);
+        try {
+            if (deadline == null) return future.join();
+            return future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (CompletionException | ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw new CompletionException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw deadline.cancel("batch." + name);   // the batch carries on for the other callers
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw deadline.cancel("batch." + name);
+        }
+    }
+
+    public CompletableFuture<V> loadAsync(K key) {
+        if (windowMillis <= 0) {
+            // batching disabled: behave like a direct query
+            return CompletableFuture.completedFuture(batchFn.apply(Set.of(key)).getOrDefault(key, missing));
+        }
+
+        CompletableFuture<V> future;
+        Batch<K, V> full = null;
+        Deadline deadline = Deadline.current();
+        synchronized (lock) {
+            pendingDeadline = pending.isEmpty() ? deadline : Deadline.latest(pendingDeadline, deadline);
+            future = pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = drain();
+            } else if (!flushScheduled) {
+                try {
+                    timer.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+                    flushScheduled = true;
+                } catch (RejectedExecutionException ex) {
+                    fail(drain(), ex);
+                }
+            }
+        }
+        if (full != null) submit(full);
+        return future;
+    }
+
+    public String getName() { return name; }
+
+    // ----------------------------- internals ------------------------------
+
+    private record Batch<K, V>(Map<K, CompletableFuture<V>> futures, Deadline deadline) {}
+
+    private void flush() {
+        Batch<K, V> batch;
+        synchronized (lock) {
+            flushScheduled = false;
+            batch = drain();
+        }
+        if (!batch.futures().isEmpty()) submit(batch);
+    }
+
+    private void submit(Batch<K, V> batch) {
+        try {
+            dispatcher.execute(() -> dispatch(batch));
+        } catch (RejectedExecutionException ex) {
+            fail(batch, ex);
+        }
+    }
+
+    private Batch<K, V> drain() {
+        Batch<K, V> batch = new Batch<>(pending, pendingDeadline);
+        pending = new LinkedHashMap<>();
+        pendingDeadline = null;
+        return batch;
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        Map<K, CompletableFuture<V>> futures = batch.futures();
+        try {
+            // every caller has given up already: don't run the query at all
+            if (batch.deadline() != null) batch.deadline().check("batch." + name);
+            Map<K, V> result = Deadline.within(batch.deadline(), () -> batchFn.apply(futures.keySet()));
+            futures.forEach((k, f) -> f.complete(result.getOrDefault(k, missing)));
+        } catch (Throwable ex) {
+            fail(batch, ex);
+        }
+    }
+
+    private static <K, V> void fail(Batch<K, V> batch, Throwable ex) {
+        batch.futures().values().forEach(f -> f.completeExceptionally(ex));
+    }
+}
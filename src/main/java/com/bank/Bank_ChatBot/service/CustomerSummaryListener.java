@@ -0,0 +1,63 @@
+package com.bank.Bank_ChatBot.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.bank.Bank_ChatBot.entities.Account;
+import com.bank.Bank_ChatBot.entities.Customer;
+import com.bank.Bank_ChatBot.entities.Loan;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA write hook for {@link CustomerSummaryProjection}. Hibernate obtains it from Spring
+ * (SpringBeanContainer), so the projection can be injected; it is looked up lazily because
+ * entity listeners are built while the EntityManagerFactory is still starting.
+ */
+public class CustomerSummaryListener {
+
+    private final ObjectProvider<CustomerSummaryProjection> projection;
+
+    public CustomerSummaryListener(ObjectProvider<CustomerSummaryProjection> projection) {
+        this.projection = projection;
+    }
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        switch (entity) {
+            case Account a -> a.setLoadedCustomerId(idOf(a.getCustomer()));
+            case Loan l -> l.setLoadedCustomerId(idOf(l.getCustomer()));
+            default -> { }
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        switch (entity) {
+            case Account a -> {
+                refresh(a.getLoadedCustomerId(), idOf(a.getCustomer()));
+                a.setLoadedCustomerId(idOf(a.getCustomer()));
+            }
+            case Loan l -> {
+                refresh(l.getLoadedCustomerId(), idOf(l.getCustomer()));
+                l.setLoadedCustomerId(idOf(l.getCustomer()));
+            }
+            default -> { }
+        }
+    }
+
+    // moving an account or loan to another customer changes both customers' rows
+    private void refresh(Integer previousOwner, Integer owner) {
+        CustomerSummaryProjection summaries = projection.getObject();
+        if (previousOwner != null && !previousOwner.equals(owner)) summaries.refreshAfterCommit(previousOwner);
+        summaries.refreshAfterCommit(owner);
+    }
+
+    private static Integer idOf(Customer c) {
+        return c == null ? null : c.getId();
+    }
+}
@@ -0,0 +1,252 @@
+package com.bank.Bank_ChatBot.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.Bank_ChatBot.query.NamedQuery;
+import com.bank.Bank_ChatBot.query.QueryRegistry;
+
+/**
+ * Read model with one row per customer: total and per-type balances, open loan count and
+ * outstanding amount. A balance question becomes a single primary-key lookup instead of
+ * SUMs over accounts and loans per message.
+ *
+ * The row is recomputed for the affected customer whenever one of their accounts or loans is
+ * written through JPA (see {@link CustomerSummaryListener}). Writers that bypass JPA (bulk
+ * loads, SQL scripts) should call {@link #refresh(Integer)} or {@link #rebuildAll()}.
+ *
+ * Refreshes of one customer are serialized on that customer's row (SELECT ... FOR UPDATE), so
+ * the refresh that writes last also read last and a stale total can't overwrite a newer one.
+ * {@link #rebuildAll()} takes the same locks, a chunk of customers per transaction.
+ *
+ * The table is created by db/customer-summary.sql (a migration in production);
+ * bank.summary.create-schema runs that script at startup for local databases only.
+ */
+@Service
+public class CustomerSummaryProjection {
+
+    /** Loan statuses that no longer count as open. */
+    private static final Set<String> CLOSED_LOAN_STATUSES = Set.of("PAID_OFF", "CLOSED", "REJECTED", "CANCELLED");
+
+    private static final String SCHEMA_SCRIPT = "db/customer-summary.sql";
+    private static final int REBUILD_CHUNK = 500;   // customers locked and rewritten per transaction
+
+    public record CustomerSummary(
+            Integer customerId,
+            BigDecimal totalBalance,
+            int accountCount,
+            Map<String, BigDecimal> balancesByType,
+            int openLoanCount,
+            BigDecimal outstandingAmount
+    ) {}
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate ownTransaction;
+    private final NamedQuery<CustomerSummary> byId;
+    private final boolean createSchema;
+    private final boolean rebuildOnStartup;
+
+    public CustomerSummaryProjection(JdbcTemplate jdbc,
+                                     PlatformTransactionManager transactions,
+                                     QueryRegistry queries,
+                                     @Value("${bank.summary.create-schema:false}") boolean createSchema,
+                                     @Value("${bank.summary.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.jdbc = jdbc;
+        // a new transaction even when called from afterCommit, where the finished one is still bound
+        this.ownTransaction = new TransactionTemplate(transactions);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.byId = queries.register("summary.by-id", """
+            SELECT customer_id, total_balance, account_count, balances_by_type, open_loan_count, outstanding_amount
+            FROM customer_summary
+            WHERE customer_id = ?
+        """, (rs, i) -> new CustomerSummary(
+                rs.getInt(1),
+                rs.getBigDecimal(2),
+                rs.getInt(3),
+                decodeBalances(rs.getString(4)),
+                rs.getInt(5),
+                rs.getBigDecimal(6)
+        ), 1, 2);
+        this.createSchema = createSchema;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)   // before anything that snapshots or warms up against the summary
+    public void init() {
+        if (createSchema) {
+            new ResourceDatabasePopulator(new ClassPathResource(SCHEMA_SCRIPT)).execute(jdbc.getDataSource());
+        }
+        if (rebuildOnStartup) rebuildAll();
+    }
+
+    /** Single primary-key lookup. */
+    public Optional<CustomerSummary> find(Integer customerId) {
+        return byId.first(customerId);
+    }
+
+    /** Recompute one customer's row after the current transaction commits (immediately if there is none). */
+    public void refreshAfterCommit(Integer customerId) {
+        if (customerId == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(customerId);
+                }
+            });
+        } else {
+            refresh(customerId);
+        }
+    }
+
+    /** Recompute one customer's row from accounts and loans. */
+    public void refresh(Integer customerId) {
+        ownTransaction.executeWithoutResult(status -> {
+            jdbc.query("SELECT customer_id FROM customers WHERE customer_id = ? FOR UPDATE", rs -> { }, customerId);
+            Acc acc = new Acc();
+            jdbc.query("SELECT account_type, balance FROM accounts WHERE customer_id = ?",
+                    rs -> { acc.addAccount(rs.getString(1), rs.getBigDecimal(2)); }, customerId);
+            jdbc.query("SELECT status, amount FROM loans WHERE customer_id = ?",
+                    rs -> { acc.addLoan(rs.getString(1), rs.getBigDecimal(2)); }, customerId);
+            upsert(customerId, acc);
+        });
+    }
+
+    /**
+     * Full rebuild; used at startup and after bulk loads. Customers are locked and rewritten a
+     * chunk at a time, like {@link #refresh}, so a concurrent refresh is never overwritten with
+     * older totals. Rows of customers that no longer exist are deleted.
+     */
+    public void rebuildAll() {
+        int customers = 0;
+        int after = Integer.MIN_VALUE;
+        for (;;) {
+            int from = after;
+            NavigableMap<Integer, Acc> chunk = ownTransaction.execute(status -> rebuildChunk(from));
+            if (chunk.isEmpty()) break;
+            customers += chunk.size();
+            after = chunk.lastKey();
+        }
+        int removed = jdbc.update("""
+            DELETE FROM customer_summary
+            WHERE NOT EXISTS (SELECT 1 FROM customers c WHERE c.customer_id = customer_summary.customer_id)
+        """);
+        System.out.println("✅ customer_summary rebuilt for " + customers + " customers"
+                + (removed > 0 ? ", " + removed + " stale rows removed" : ""));
+    }
+
+    // ----------------------------- Helpers ------------------------------
+
+    /** The next REBUILD_CHUNK customers after {@code after}, locked, recomputed and written. */
+    private NavigableMap<Integer, Acc> rebuildChunk(int after) {
+        NavigableMap<Integer, Acc> chunk = new TreeMap<>();
+        jdbc.query("SELECT customer_id FROM customers WHERE customer_id > ? ORDER BY customer_id LIMIT ? FOR UPDATE",
+                rs -> { chunk.put(rs.getInt(1), new Acc()); }, after, REBUILD_CHUNK);
+        if (chunk.isEmpty()) return chunk;
+        Object[] range = {chunk.firstKey(), chunk.lastKey()};
+        jdbc.query("SELECT customer_id, account_type, balance FROM accounts WHERE customer_id BETWEEN ? AND ?", rs -> {
+            Acc acc = chunk.get(rs.getInt(1));
+            if (acc != null) acc.addAccount(rs.getString(2), rs.getBigDecimal(3));
+        }, range);
+        jdbc.query("SELECT customer_id, status, amount FROM loans WHERE customer_id BETWEEN ? AND ?", rs -> {
+            Acc acc = chunk.get(rs.getInt(1));
+            if (acc != null) acc.addLoan(rs.getString(2), rs.getBigDecimal(3));
+        }, range);
+        chunk.forEach(this::upsert);
+        return chunk;
+    }
+
+    private void upsert(Integer customerId, Acc acc) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String byType = encodeBalances(acc.byType);
+        Object[] values = {acc.total, acc.accounts, byType, acc.openLoans, acc.outstanding, now, customerId};
+        // UPDATE-then-INSERT keeps this portable across MySQL and H2
+        if (update(values) > 0) return;
+        try {
+            jdbc.update("""
+                INSERT INTO customer_summary
+                    (total_balance, account_count, balances_by_type, open_loan_count, outstanding_amount, updated_at, customer_id)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+            """, values);
+        } catch (DuplicateKeyException raced) {
+            // another first insert got there first (a customer without a row to lock)
+            update(values);
+        }
+    }
+
+    private int update(Object[] values) {
+        return jdbc.update("""
+            UPDATE customer_summary
+            SET total_balance = ?, account_count = ?, balances_by_type = ?,
+                open_loan_count = ?, outstanding_amount = ?, updated_at = ?
+            WHERE customer_id = ?
+        """, values);
+    }
+
+    // "CHECKING:1500.00,SAVINGS:5000.00" - keeps the per-type split in the same row as the totals
+    private static String encodeBalances(Map<String, BigDecimal> byType) {
+        StringBuilder sb = new StringBuilder();
+        byType.forEach((type, amt) -> {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(type).append(':').append(amt.toPlainString());
+        });
+        return sb.toString();
+    }
+
+    private static Map<String, BigDecimal> decodeBalances(String s) {
+        Map<String, BigDecimal> out = new TreeMap<>();
+        if (s == null || s.isBlank()) return out;
+        for (String part : s.split(",")) {
+            int i = part.lastIndexOf(':');
+            if (i > 0) out.put(part.substring(0, i), new BigDecimal(part.substring(i + 1)));
+        }
+        return out;
+    }
+
+    private static final class Acc {
+        BigDecimal total = BigDecimal.ZERO.setScale(2);
+        int accounts;
+        final Map<String, BigDecimal> byType = new TreeMap<>();
+        int openLoans;
+        BigDecimal outstanding = BigDecimal.ZERO.setScale(2);
+
+        void addAccount(String type, BigDecimal balance) {
+            BigDecimal b = balance == null ? BigDecimal.ZERO : balance.setScale(2, RoundingMode.HALF_UP);
+            String t = type == null || type.isBlank() ? "OTHER" : type.trim().toUpperCase(Locale.ROOT);
+            total = total.add(b);
+            accounts++;
+            byType.merge(t, b, BigDecimal::add);
+        }
+
+        void addLoan(String status, BigDecimal amount) {
+            String s = status == null ? "" : status.trim().toUpperCase(Locale.ROOT);
+            if (CLOSED_LOAN_STATUSES.contains(s)) return;
+            openLoans++;
+            if (amount != null) outstanding = outstanding.add(amount.setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+}
@@ -2,11 +2,15 @@ package com.bank.Bank_ChatBot.service;
 
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import com.bank.Bank_ChatBot.admission.AdaptiveBulkhead;
+import com.bank.Bank_ChatBot.deadline.Deadline;
 import com.bank.Bank_ChatBot.dto.ParseResponse;
 
 @Service
@@ -14,18 +18,30 @@ public class NlpService {
 
     private final RestTemplate rest;
     private final String baseUrl;
+    private final AdaptiveBulkhead bulkhead;
 
     public NlpService(RestTemplate rest,
-                      @Value("${nlp.base-url:http://localhost:8000}") String baseUrl) {
+                      @Value("${nlp.base-url:http://localhost:8000}") String baseUrl,
+                      @Qualifier("nlpBulkhead") AdaptiveBulkhead bulkhead) {
         this.rest = rest;
         this.baseUrl = baseUrl;
+        this.bulkhead = bulkhead;
         System.out.println("✅ NlpService ready using RestTemplate, baseUrl=" + this.baseUrl);
     }
 
+    /** Bounded by the request's {@link Deadline}: connect/read timeouts shrink to the time left. */
     public ParseResponse parse(String message) {
         Map<String, String> payload = Map.of("message", message);
-        ResponseEntity<ParseResponse> resp =
-                rest.postForEntity(baseUrl + "/parse", payload, ParseResponse.class);
-        return resp.getBody();
+        return bulkhead.execute(() -> {
+            try {
+                ResponseEntity<ParseResponse> resp =
+                        rest.postForEntity(baseUrl + "/parse", payload, ParseResponse.class);
+                return resp.getBody();
+            } catch (ResourceAccessException ex) {
+                Deadline d = Deadline.current();
+                if (d != null && d.expired()) throw d.cancel("nlp");   // our budget ran out, not the NLP service
+                throw ex;
+            }
+        });
     }
 }
@@ -0,0 +1,59 @@
+package com.bank.Bank_ChatBot.statement;
+
+import java.time.DateTimeException;
+import java.time.YearMonth;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Not in web.exposure.include by default: POST and DELETE have no authentication of their own.
+ * Expose it on a management port that isn't reachable from outside (see application.yml).
+ *
+ * /actuator/statements:
+ *   GET                              the {@link StatementReport} of the current or last run
+ *   POST {"month":"2026-09"}         starts a run in the background (default: last month);
+ *                                    run the same month again to resume after a crash or stop
+ *   DELETE                           stops after the ranges being written
+ */
+@Component
+@Endpoint(id = "statements")
+public class StatementEndpoint {
+
+    private final StatementJob job;
+
+    public StatementEndpoint(StatementJob job) {
+        this.job = job;
+    }
+
+    @ReadOperation
+    public StatementReport report() {
+        return job.report();
+    }
+
+    @WriteOperation
+    public StatementReport start(@Nullable String month) {
+        YearMonth m;
+        try {
+            m = month == null || month.isBlank() ? YearMonth.now().minusMonths(1) : YearMonth.parse(month.trim());
+        } catch (DateTimeException ex) {
+            throw new InvalidEndpointRequestException("month must be yyyy-MM", "Invalid month '" + month + "'");
+        }
+        try {
+            return job.start(m);
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            throw new InvalidEndpointRequestException(ex.getMessage(), ex.getMessage());
+        }
+    }
+
+    @DeleteOperation
+    public StatementReport stop() {
+        job.stop();
+        return job.report();
+    }
+}
@@ -0,0 +1,374 @@
+package com.bank.Bank_ChatBot.statement;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bank.Bank_ChatBot.datasource.ReadOnlyRouting;
+import com.bank.Bank_ChatBot.query.NamedQuery;
+import com.bank.Bank_ChatBot.query.QueryRegistry;
+import com.bank.Bank_ChatBot.statement.StatementReport.State;
+import com.bank.Bank_ChatBot.statement.StatementWriter.AccountRow;
+import com.bank.Bank_ChatBot.statement.StatementWriter.CustomerRow;
+import com.bank.Bank_ChatBot.statement.StatementWriter.LoanRow;
+import com.bank.Bank_ChatBot.statement.StatementWriter.TxRow;
+import com.bank.Bank_ChatBot.util.TextWriter;
+
+/**
+ * Monthly statements for every customer, written to {bank.statements.dir}/{yyyy-MM}/.
+ *
+ * Customer ids are cut into ranges of bank.statements.range-size ids, aligned to the first id of
+ * the month's first run. Each range runs on its own virtual thread; at most bank.statements.parallelism
+ * hold a database connection at once (keep it below the pool size, chat traffic shares the pool).
+ * A range loads its customers, accounts and loans, then streams the month's transactions through
+ * one cursor (fetch size bank.query.statements.transactions.fetch-size; Connector/J needs
+ * useCursorFetch=true for that) into a {@link StatementWriter}. Reads go to a replica when
+ * routing is enabled.
+ *
+ * Checkpoint / restart: a range is written to {name}.part, fsynced, then atomically renamed to
+ * customers-{lo}-{hi}.txt. A later run of the same month skips ranges whose file exists and
+ * deletes stray .part files, so a crashed, stopped or partly failed run is simply started again.
+ * job.properties records the range layout; a run with a different range size is refused
+ * (delete the month's directory to start over). Only months that have ended are accepted: a
+ * checkpointed range of an open month would never pick up its later transactions.
+ *
+ * Progress and throughput (customers/s, transactions/s) are logged every
+ * bank.statements.progress-interval-ms and available from {@link #report()} (/actuator/statements).
+ */
+@Component
+public class StatementJob {
+
+    static final String MANIFEST = "job.properties";
+    private static final String PART = ".part";
+
+    private final NamedQuery<long[]> span;
+    private final NamedQuery<CustomerRow> customers;
+    private final NamedQuery<AccountRow> accounts;
+    private final NamedQuery<LoanRow> loans;
+    private final NamedQuery<TxRow> transactions;
+    private final Path root;
+    private final int parallelism;
+    private final int rangeSize;
+    private final long progressIntervalMs;
+
+    private final AtomicReference<Run> current = new AtomicReference<>();
+    private volatile StatementReport last = StatementReport.idle();
+
+    public StatementJob(QueryRegistry queries,
+                        @Value("${bank.statements.dir:statements}") String dir,
+                        @Value("${bank.statements.parallelism:4}") int parallelism,
+                        @Value("${bank.statements.range-size:1000}") int rangeSize,
+                        @Value("${bank.statements.progress-interval-ms:5000}") long progressIntervalMs) {
+        this.root = Paths.get(dir);
+        this.parallelism = Math.max(1, parallelism);
+        this.rangeSize = Math.max(1, rangeSize);
+        this.progressIntervalMs = Math.max(100, progressIntervalMs);
+
+        this.span = queries.register("statements.customer-span", """
+            SELECT MIN(customer_id), MAX(customer_id) FROM customers
+        """, (rs, i) -> {
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        }, 0, 30);
+        this.customers = queries.register("statements.customers", """
+            SELECT customer_id, full_name, email
+            FROM customers
+            WHERE customer_id BETWEEN ? AND ?
+            ORDER BY customer_id
+        """, (rs, i) -> new CustomerRow(rs.getInt(1), rs.getString(2), rs.getString(3)), 1000, 60);
+        // sums from the month start onwards only, so the join stays on idx_transactions_account_date
+        this.accounts = queries.register("statements.accounts", """
+            SELECT a.account_id, a.customer_id, a.account_type, a.balance,
+                   COALESCE(SUM(CASE WHEN t.transaction_date < ? THEN t.amount END), 0),
+                   COALESCE(SUM(CASE WHEN t.transaction_date >= ? THEN t.amount END), 0)
+            FROM accounts a
+            LEFT JOIN transactions t ON t.account_id = a.account_id AND t.transaction_date >= ?
+            WHERE a.customer_id BETWEEN ? AND ?
+            GROUP BY a.account_id, a.customer_id, a.account_type, a.balance
+            ORDER BY a.customer_id, a.account_id
+        """, (rs, i) -> new AccountRow(rs.getInt(1), rs.getInt(2), rs.getString(3),
+                cents(rs.getBigDecimal(4)), cents(rs.getBigDecimal(5)), cents(rs.getBigDecimal(6))), 1000, 120);
+        this.loans = queries.register("statements.loans", """
+            SELECT loan_id, customer_id, amount, status
+            FROM loans
+            WHERE customer_id BETWEEN ? AND ?
+            ORDER BY customer_id, loan_id
+        """, (rs, i) -> new LoanRow(rs.getInt(1), rs.getInt(2), cents(rs.getBigDecimal(3)), rs.getString(4)), 1000, 60);
+        this.transactions = queries.register("statements.transactions", """
+            SELECT a.customer_id, t.account_id, t.transaction_date, t.amount, t.type, t.description
+            FROM transactions t
+            JOIN accounts a ON a.account_id = t.account_id
+            WHERE a.customer_id BETWEEN ? AND ?
+              AND t.transaction_date >= ? AND t.transaction_date < ?
+            ORDER BY a.customer_id, t.account_id, t.transaction_date, t.transaction_id
+        """, (rs, i) -> new TxRow(rs.getInt(1), rs.getInt(2), rs.getTimestamp(3).toLocalDateTime(),
+                cents(rs.getBigDecimal(4)), rs.getString(5), rs.getString(6)), 1000, 600);
+    }
+
+    /**
+     * Starts a run in the background. IllegalArgumentException for a month that hasn't ended,
+     * IllegalStateException if a run is already in progress.
+     */
+    public StatementReport start(YearMonth month) {
+        Run run = begin(month);
+        Thread.ofPlatform().name("statement-job").daemon(true).start(() -> execute(run));
+        return run.report();
+    }
+
+    /** Runs on the calling thread until every range is done (or failed). */
+    public StatementReport run(YearMonth month) {
+        execute(begin(month));
+        return last;
+    }
+
+    public StatementReport report() {
+        Run run = current.get();
+        return run != null ? run.report() : last;
+    }
+
+    /** Ranges not started yet are left for the next run; ranges being written finish. */
+    public boolean stop() {
+        Run run = current.get();
+        if (run == null) return false;
+        run.stopped = true;
+        return true;
+    }
+
+    // ----------------------------- run ------------------------------
+
+    private Run begin(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Statements for " + month + " can only run once the month has ended");
+        }
+        Run run = new Run(month, root.resolve(month.toString()));
+        Run running = current.compareAndExchange(null, run);
+        if (running != null) {
+            throw new IllegalStateException("A statement run for " + running.month + " is already in progress");
+        }
+        return run;
+    }
+
+    private void execute(Run run) {
+        try {
+            List<long[]> ranges = plan(run);
+            run.ranges = ranges.size();
+            System.out.println("✅ Statements " + run.month + ": " + ranges.size() + " range(s) of " + rangeSize
+                    + " customer ids, parallelism " + parallelism + ", to " + run.dir.toAbsolutePath());
+
+            Semaphore slots = new Semaphore(parallelism);
+            try (ExecutorService workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("statement-", 0).factory())) {
+                for (long[] r : ranges) workers.execute(() -> range(run, r[0], r[1], slots));
+                workers.shutdown();
+                while (!workers.awaitTermination(progressIntervalMs, TimeUnit.MILLISECONDS)) {
+                    log(run.report());
+                }
+            }
+            run.state = run.failed.get() > 0 ? State.FAILED
+                      : run.stopped ? State.STOPPED
+                      : State.COMPLETED;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            run.stopped = true;
+            run.state = State.STOPPED;
+        } catch (RuntimeException | IOException ex) {
+            run.error("plan: " + ex.getMessage());
+            run.state = State.FAILED;
+        } finally {
+            run.elapsedNanos = System.nanoTime() - run.startNanos;
+            last = run.report();
+            current.set(null);
+            log(last);
+        }
+    }
+
+    private void range(Run run, long lo, long hi, Semaphore slots) {
+        Path done = run.dir.resolve("customers-" + lo + "-" + hi + ".txt");
+        if (Files.exists(done)) {
+            run.skipped.incrementAndGet();
+            return;
+        }
+        try {
+            slots.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        Path part = run.dir.resolve(done.getFileName() + PART);
+        try {
+            if (run.stopped) return;
+            ReadOnlyRouting.onReplica(() -> {
+                write(run, (int) lo, (int) hi, part);
+                return null;
+            });
+            Files.move(part, done, StandardCopyOption.ATOMIC_MOVE);
+            run.completed.incrementAndGet();
+        } catch (Exception ex) {
+            run.failed.incrementAndGet();
+            run.error(done.getFileName() + ": " + ex);
+            System.out.println("⚠️ Statements " + run.month + " " + done.getFileName() + " failed: " + ex);
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException ignored) {
+                // removed by the next run
+            }
+        } finally {
+            slots.release();
+        }
+    }
+
+    private void write(Run run, int lo, int hi, Path part) {
+        Timestamp start = Timestamp.valueOf(run.month.atDay(1).atStartOfDay());
+        Timestamp end = Timestamp.valueOf(run.month.plusMonths(1).atDay(1).atStartOfDay());
+
+        List<CustomerRow> cs = customers.list(lo, hi);
+        List<AccountRow> as = accounts.list(end, end, start, lo, hi);
+        List<LoanRow> ls = loans.list(lo, hi);
+
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel),
+                     StandardCharsets.UTF_8), 64 * 1024)) {
+            StatementWriter statements = new StatementWriter(new TextWriter(out), run.month, cs, as, ls);
+            transactions.forEach(statements::transaction, lo, hi, start, end);
+            statements.finish();
+            out.flush();
+            channel.force(true);   // durable before the rename marks the range done
+
+            run.customers.add(statements.customers());
+            run.transactions.add(statements.transactions());
+            run.bytes.add(channel.size());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // ----------------------------- plan / checkpoint ------------------------------
+
+    /** [lo, hi] id ranges covering every customer, aligned to the manifest's first id. */
+    private List<long[]> plan(Run run) throws IOException {
+        Files.createDirectories(run.dir);
+        try (DirectoryStream<Path> stray = Files.newDirectoryStream(run.dir, "*" + PART)) {
+            for (Path p : stray) Files.deleteIfExists(p);
+        }
+
+        long[] ids = span.first().orElse(null);
+        if (ids == null) return List.of();
+
+        Path manifest = run.dir.resolve(MANIFEST);
+        long first = ids[0];
+        if (Files.exists(manifest)) {
+            Properties p = new Properties();
+            try (InputStream in = Files.newInputStream(manifest)) {
+                p.load(in);
+            }
+            int size = Integer.parseInt(p.getProperty("range-size"));
+            if (size != rangeSize) {
+                throw new IllegalStateException(run.dir + " was started with range-size " + size
+                        + " (now " + rangeSize + "); delete it to start over");
+            }
+            first = Long.parseLong(p.getProperty("first-id"));
+        } else {
+            Properties p = new Properties();
+            p.setProperty("month", run.month.toString());
+            p.setProperty("range-size", Integer.toString(rangeSize));
+            p.setProperty("first-id", Long.toString(first));
+            Path tmp = run.dir.resolve(MANIFEST + PART);
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                p.store(out, "statement run layout; ranges are customers-{lo}-{hi}.txt");
+            }
+            Files.move(tmp, manifest, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        List<long[]> ranges = new ArrayList<>();
+        long lo = first + Math.floorDiv(ids[0] - first, rangeSize) * (long) rangeSize;
+        for (; lo <= ids[1]; lo += rangeSize) {
+            ranges.add(new long[]{lo, Math.min(lo + rangeSize - 1, Integer.MAX_VALUE)});
+        }
+        return ranges;
+    }
+
+    // ----------------------------- helpers ------------------------------
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static void log(StatementReport r) {
+        String icon = r.state() == State.FAILED || r.state() == State.STOPPED ? "⚠️" : "✅";
+        System.out.println(icon + " Statements " + r.month() + " " + r.state() + ": "
+                + (r.completed() + r.skipped()) + "/" + r.ranges() + " ranges (" + r.skipped() + " from checkpoint, "
+                + r.failed() + " failed), " + r.customers() + " customers, " + r.transactions() + " transactions, "
+                + Math.round(r.customersPerSecond()) + " customers/s, " + Math.round(r.transactionsPerSecond())
+                + " transactions/s, " + r.bytes() / 1024 + " KiB in " + r.elapsedMs() + " ms");
+    }
+
+    private final class Run {
+        final YearMonth month;
+        final Path dir;
+        final long startNanos = System.nanoTime();
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger skipped = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final LongAdder customers = new LongAdder();
+        final LongAdder transactions = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        volatile int ranges;
+        volatile boolean stopped;
+        volatile State state = State.RUNNING;
+        volatile long elapsedNanos = -1;
+
+        Run(YearMonth month, Path dir) {
+            this.month = month;
+            this.dir = dir;
+        }
+
+        void error(String message) {
+            if (errors.size() < 20) errors.add(message);
+        }
+
+        StatementReport report() {
+            long nanos = elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - startNanos;
+            double seconds = Math.max(nanos, 1) / 1e9;
+            long c = customers.sum(), t = transactions.sum();
+            List<String> e;
+            synchronized (errors) {
+                e = List.copyOf(errors);
+            }
+            return new StatementReport(month.toString(), state, dir.toAbsolutePath().toString(), parallelism,
+                    ranges, completed.get(), skipped.get(), failed.get(), c, t, bytes.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(nanos), c / seconds, t / seconds, e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.bank.Bank_ChatBot.statement;
+
+import java.util.List;
+
+/**
+ * Progress of the current (or last) statement run. {@code skipped} ranges were already written by
+ * an earlier run of the same month (checkpoint); throughput counts only this run's work.
+ */
+public record StatementReport(
+        String month,
+        State state,
+        String dir,
+        int parallelism,
+        int ranges,
+        int completed,
+        int skipped,
+        int failed,
+        long customers,
+        long transactions,
+        long bytes,
+        long elapsedMs,
+        double customersPerSecond,
+        double transactionsPerSecond,
+        List<String> errors) {
+
+    public enum State {
+        IDLE, RUNNING, COMPLETED, STOPPED, FAILED;
+
+        public boolean finished() {
+            return this != IDLE && this != RUNNING;
+        }
+    }
+
+    static StatementReport idle() {
+        return new StatementReport(null, State.IDLE, null, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, List.of());
+    }
+}
@@ -0,0 +1,171 @@
+package com.bank.Bank_ChatBot.statement;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import com.bank.Bank_ChatBot.util.TextWriter;
+
+/**
+ * Renders the statements of one customer range while its transactions stream past.
+ *
+ * Customers, accounts (with their month and after-month sums) and loans of the range are small
+ * and given up front, all sorted by customer id (accounts then by account id). Transactions
+ * arrive ordered by customer, account, date; each one moves the cursor forward, writing every
+ * customer and account it passes, so nothing but the current row is held. Customers without
+ * accounts, and accounts without transactions in the month, still get their section.
+ *
+ * Per account: opening = balance - in_month - after_month, closing = balance - after_month,
+ * where balance is the current balance and after_month sums transactions dated after the month.
+ * Not thread-safe; one instance per range.
+ */
+final class StatementWriter {
+
+    static final String SEPARATOR = "=".repeat(72);
+
+    private final TextWriter out;
+    private final YearMonth month;
+    private final List<CustomerRow> customers;
+    private final List<AccountRow> accounts;
+    private final List<LoanRow> loans;
+
+    private int ci, ai, li;
+    private boolean customerOpen;
+    private boolean accountOpen;
+    private long in, outgoing;
+    private int count;
+
+    private int written;
+    private long transactions;
+
+    StatementWriter(TextWriter out, YearMonth month, List<CustomerRow> customers,
+                    List<AccountRow> accounts, List<LoanRow> loans) {
+        this.out = out;
+        this.month = month;
+        this.customers = customers;
+        this.accounts = accounts;
+        this.loans = loans;
+    }
+
+    /** Customers written so far. */
+    int customers() { return written; }
+
+    /** Transactions written so far. */
+    long transactions() { return transactions; }
+
+    void transaction(TxRow t) {
+        if (!moveTo(t.customerId(), t.accountId())) return;   // account or customer outside the range's lists
+        out.text("  ").dateTime(t.date()).text("  ").text(t.type() == null ? "" : t.type())
+           .text("  ").money(t.cents() / 100.0);
+        if (t.description() != null && !t.description().isBlank()) out.text("  ").text(t.description());
+        out.newline();
+        if (t.cents() >= 0) in += t.cents();
+        else outgoing += t.cents();
+        count++;
+        transactions++;
+    }
+
+    /** Writes the customers after the last transaction. */
+    void finish() {
+        while (ci < customers.size()) {
+            finishCustomer();
+            ci++;
+        }
+    }
+
+    // ----------------------------- cursor ------------------------------
+
+    private boolean moveTo(int customerId, int accountId) {
+        while (ci < customers.size() && customers.get(ci).id() < customerId) {
+            finishCustomer();
+            ci++;
+        }
+        if (ci == customers.size() || customers.get(ci).id() != customerId) return false;
+        startCustomer();
+
+        while (ai < accounts.size() && accounts.get(ai).customerId() == customerId && accounts.get(ai).id() < accountId) {
+            closeAccount();
+            ai++;
+        }
+        if (ai == accounts.size() || accounts.get(ai).customerId() != customerId || accounts.get(ai).id() != accountId) {
+            return false;
+        }
+        openAccount();
+        return true;
+    }
+
+    private void startCustomer() {
+        if (customerOpen) return;
+        CustomerRow c = customers.get(ci);
+        out.text("STATEMENT ").date(month.atDay(1)).text(" .. ").date(month.atEndOfMonth()).newline();
+        out.text("Customer ").integer(c.id()).text("  ").text(c.name() == null ? "" : c.name());
+        if (c.email() != null) out.text("  ").text(c.email());
+        out.newline();
+        customerOpen = true;
+        // accounts whose customer row is missing sort before this one
+        while (ai < accounts.size() && accounts.get(ai).customerId() < c.id()) ai++;
+    }
+
+    private void finishCustomer() {
+        startCustomer();
+        int id = customers.get(ci).id();
+        if (ai == accounts.size() || accounts.get(ai).customerId() != id) {
+            out.text("No accounts").newline();
+        }
+        while (ai < accounts.size() && accounts.get(ai).customerId() == id) {
+            closeAccount();
+            ai++;
+        }
+
+        while (li < loans.size() && loans.get(li).customerId() < id) li++;
+        boolean header = false;
+        for (; li < loans.size() && loans.get(li).customerId() == id; li++) {
+            LoanRow l = loans.get(li);
+            if (!header) {
+                out.text("Loans").newline();
+                header = true;
+            }
+            out.text("  Loan ").integer(l.id()).text("  ").text(l.status() == null ? "" : l.status())
+               .text("  ").money(l.cents() / 100.0).newline();
+        }
+
+        out.text(SEPARATOR).newline();
+        customerOpen = false;
+        written++;
+    }
+
+    private void openAccount() {
+        if (accountOpen) return;
+        AccountRow a = accounts.get(ai);
+        out.text("Account ").integer(a.id()).text("  ").text(a.type() == null ? "" : a.type()).newline();
+        out.text("  Opening balance  ").money(a.openingCents() / 100.0).newline();
+        accountOpen = true;
+    }
+
+    private void closeAccount() {
+        boolean empty = !accountOpen;
+        openAccount();
+        if (empty) out.text("  No transactions").newline();
+        AccountRow a = accounts.get(ai);
+        out.text("  Closing balance  ").money(a.closingCents() / 100.0).newline();
+        out.text("  ").integer(count).text(count == 1 ? " transaction" : " transactions")
+           .text(", in ").money(in / 100.0).text(", out ").money(outgoing / 100.0).newline();
+        accountOpen = false;
+        in = outgoing = 0;
+        count = 0;
+    }
+
+    // ----------------------------- rows ------------------------------
+
+    record CustomerRow(int id, String name, String email) {}
+
+    /** Amounts in cents; {@code inMonthCents} and {@code afterCents} sum the account's transactions. */
+    record AccountRow(int id, int customerId, String type, long balanceCents, long inMonthCents, long afterCents) {
+        long closingCents() { return balanceCents - afterCents; }
+        long openingCents() { return balanceCents - afterCents - inMonthCents; }
+    }
+
+    record LoanRow(int id, int customerId, long cents, String status) {}
+
+    record TxRow(int customerId, int accountId, LocalDateTime date, long cents, String type, String description) {}
+}
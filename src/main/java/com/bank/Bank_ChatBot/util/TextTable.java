@@ -1,63 +1,109 @@
 package com.bank.Bank_ChatBot.util;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 public class TextTable {
 
+    /** Rows looked at to size the columns when streaming; wider cells later on are cut with "…". */
+    public static final int DEFAULT_SAMPLE = 256;
+
+    private static final int MIN_WIDTH = 3;
+    private static final int MAX_WIDTH = 48; // clamp to avoid very long columns
+
+    /** One column: header plus how to write a row's cell. */
+    public record Column<T>(String header, BiConsumer<TextWriter, ? super T> cell) {}
+
     public static String table(List<String> headers, List<List<String>> rows) {
         if (headers == null) headers = List.of();
         if (rows == null) rows = List.of();
 
         int cols = Math.max(headers.size(), rows.stream().mapToInt(List::size).max().orElse(0));
-        int[] widths = new int[cols];
+        List<Column<List<String>>> columns = new ArrayList<>(cols);
+        for (int c = 0; c < cols; c++) {
+            final int i = c;
+            columns.add(new Column<>(c < headers.size() ? safe(headers.get(c)) : null,
+                    (w, r) -> w.text(i < r.size() ? safe(r.get(i)) : "")));
+        }
+        StringBuilder sb = new StringBuilder();
+        // rows are already in memory, so size from all of them
+        render(sb, columns, rows.iterator(), Math.max(rows.size(), 1), !headers.isEmpty());
+        return sb.toString();
+    }
+
+    /**
+     * Streams a table into {@code out}: columns are sized from the first {@link #DEFAULT_SAMPLE}
+     * rows, then every row is written as it is pulled from {@code rows}. Nothing but the sample
+     * is held in memory. No trailing newline.
+     */
+    public static <T> void render(Appendable out, List<Column<T>> columns, Iterator<? extends T> rows) {
+        render(out, columns, rows, DEFAULT_SAMPLE, columns.stream().anyMatch(c -> c.header() != null));
+    }
+
+    public static <T> void render(Appendable out, List<Column<T>> columns, Iterator<? extends T> rows,
+                                  int sampleSize, boolean withHeader) {
+        int cols = columns.size();
+        TextWriter w = new TextWriter(out);
+        StringBuilder cell = new StringBuilder(64);  // reused for every cell
+        TextWriter cw = new TextWriter(cell);
 
-        // compute widths
+        int[] widths = new int[cols];
         for (int c = 0; c < cols; c++) {
-            int w = 0;
-            if (c < headers.size()) w = Math.max(w, safe(headers.get(c)).length());
-            for (List<String> r : rows) {
-                if (c < r.size()) w = Math.max(w, safe(r.get(c)).length());
+            if (withHeader) widths[c] = safe(columns.get(c).header()).length();
+        }
+        List<T> sample = new ArrayList<>(Math.min(sampleSize, 64));
+        while (sample.size() < sampleSize && rows.hasNext()) {
+            T r = rows.next();
+            sample.add(r);
+            for (int c = 0; c < cols; c++) {
+                cell.setLength(0);
+                columns.get(c).cell().accept(cw, r);
+                widths[c] = Math.max(widths[c], cell.length());
             }
-            widths[c] = Math.min(Math.max(w, 3), 48); // clamp to avoid very long columns
         }
-
-        String sep = line(widths);
-        StringBuilder sb = new StringBuilder();
-        if (!headers.isEmpty()) {
-            sb.append(sep).append('\n');
-            sb.append(row(headers, widths)).append('\n');
+        for (int c = 0; c < cols; c++) {
+            widths[c] = Math.min(Math.max(widths[c], MIN_WIDTH), MAX_WIDTH);
         }
-        sb.append(sep).append('\n');
-        for (List<String> r : rows) {
-            sb.append(row(r, widths)).append('\n');
+
+        if (withHeader) {
+            line(w, widths).newline();
+            w.text("| ");
+            for (int c = 0; c < cols; c++) {
+                cell.setLength(0);
+                cell.append(safe(columns.get(c).header()));
+                pad(w, cell, widths[c]).text(" | ");
+            }
+            w.newline();
         }
-        sb.append(sep);
-        return sb.toString();
+        line(w, widths).newline();
+        for (T r : sample) row(w, cw, cell, columns, widths, r);
+        while (rows.hasNext()) row(w, cw, cell, columns, widths, rows.next());
+        line(w, widths);
     }
 
-    private static String row(List<String> cols, int[] widths) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("| ");
-        for (int i = 0; i < widths.length; i++) {
-            String cell = i < cols.size() ? safe(cols.get(i)) : "";
-            sb.append(pad(cell, widths[i])).append(" | ");
+    private static <T> void row(TextWriter w, TextWriter cw, StringBuilder cell,
+                                List<Column<T>> columns, int[] widths, T r) {
+        w.text("| ");
+        for (int c = 0; c < widths.length; c++) {
+            cell.setLength(0);
+            columns.get(c).cell().accept(cw, r);
+            pad(w, cell, widths[c]).text(" | ");
         }
-        return sb.toString();
+        w.newline();
     }
 
-    private static String line(int[] widths) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("+");
-        for (int w : widths) {
-            sb.append("-".repeat(w + 2)).append("+");
+    private static TextWriter line(TextWriter w, int[] widths) {
+        w.ch('+');
+        for (int width : widths) {
+            w.repeat('-', width + 2).ch('+');
         }
-        return sb.toString();
+        return w;
     }
 
-    private static String pad(String s, int w) {
-        if (s.length() > w) s = s.substring(0, w - 1) + "…";
-        return s + " ".repeat(Math.max(0, w - s.length()));
+    private static TextWriter pad(TextWriter w, CharSequence s, int width) {
+        if (s.length() > width) return w.text(s, 0, width - 1).ch('…');
+        return w.text(s).repeat(' ', width - s.length());
     }
 
     private static String safe(String s) { return s == null ? "" : s; }
@@ -0,0 +1,163 @@
+package com.bank.Bank_ChatBot.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Writes text straight into an {@link Appendable} (StringBuilder, servlet Writer, ...) with
+ * hand-rolled number and date formatting, so rendering a row allocates nothing per cell.
+ * Output matches the String.format / DateTimeFormatter patterns it replaces:
+ *
+ *   money(v)      ==  String.format("%.2f", v)
+ *   dateTime(t)   ==  DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+ *
+ * IOExceptions from the target are rethrown as UncheckedIOException. Not thread-safe.
+ */
+public final class TextWriter {
+
+    private final Appendable out;
+    private final char[] buf = new char[24];   // scratch for digits; long needs 20
+
+    public TextWriter(Appendable out) {
+        this.out = out;
+    }
+
+    public Appendable out() { return out; }
+
+    /** Like StringBuilder.append: null prints as "null". */
+    public TextWriter text(CharSequence s) {
+        try {
+            out.append(s == null ? "null" : s);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return this;
+    }
+
+    public TextWriter text(CharSequence s, int start, int end) {
+        try {
+            out.append(s, start, end);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return this;
+    }
+
+    public TextWriter ch(char c) {
+        try {
+            out.append(c);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return this;
+    }
+
+    public TextWriter newline() {
+        return ch('\n');
+    }
+
+    public TextWriter repeat(char c, int n) {
+        for (int i = 0; i < n; i++) ch(c);
+        return this;
+    }
+
+    /** Null prints as "null", like %d. */
+    public TextWriter integer(Integer v) {
+        return v == null ? text("null") : integer(v.longValue());
+    }
+
+    public TextWriter integer(long v) {
+        if (v == Long.MIN_VALUE) return text("-9223372036854775808");
+        int pos = buf.length;
+        boolean neg = v < 0;
+        long x = neg ? -v : v;
+        do {
+            buf[--pos] = (char) ('0' + (x % 10));
+            x /= 10;
+        } while (x != 0);
+        if (neg) buf[--pos] = '-';
+        return flush(pos);
+    }
+
+    /** Null prints as "null", like %.2f. */
+    public TextWriter money(Double v) {
+        return v == null ? text("null") : money(v.doubleValue());
+    }
+
+    /** Two decimals, HALF_UP on the shortest decimal form (Double.toString), like String.format("%.2f"). */
+    public TextWriter money(double v) {
+        if (Double.isNaN(v)) return text("NaN");
+        if (Double.isInfinite(v)) return text(v > 0 ? "Infinity" : "-Infinity");
+
+        boolean neg = Double.doubleToRawLongBits(v) < 0;   // -0.0 prints "-0.00", as %.2f does
+        double a = Math.abs(v);
+        double scaled = a * 100;
+        // Math.round agrees with %.2f away from .5 ties and below 2^53; near a tie (0.015, 2.675)
+        // %.2f rounds the printed digits rather than the binary value, so do the same (rare).
+        if (a >= 1e13 || Math.abs(scaled - Math.floor(scaled) - 0.5) < 1e-6) {
+            if (neg) ch('-');
+            return text(BigDecimal.valueOf(a).setScale(2, RoundingMode.HALF_UP).toPlainString());
+        }
+        long cents = Math.round(scaled);
+        int pos = buf.length;
+        buf[--pos] = (char) ('0' + cents % 10);
+        buf[--pos] = (char) ('0' + (cents / 10) % 10);
+        buf[--pos] = '.';
+        long units = cents / 100;
+        do {
+            buf[--pos] = (char) ('0' + (units % 10));
+            units /= 10;
+        } while (units != 0);
+        if (neg) buf[--pos] = '-';
+        return flush(pos);
+    }
+
+    /** yyyy-MM-dd */
+    public TextWriter date(LocalDate d) {
+        pad(d.getYear(), 4).ch('-');
+        pad(d.getMonthValue(), 2).ch('-');
+        return pad(d.getDayOfMonth(), 2);
+    }
+
+    /** yyyy-MM-dd HH:mm */
+    public TextWriter dateTime(LocalDateTime t) {
+        date(t.toLocalDate()).ch(' ');
+        pad(t.getHour(), 2).ch(':');
+        return pad(t.getMinute(), 2);
+    }
+
+    // ----------------------------- internals ------------------------------
+
+    // zero-padded non-negative int; wider values print in full (year 10000+)
+    private TextWriter pad(int v, int width) {
+        int pos = buf.length;
+        int digits = 0;
+        do {
+            buf[--pos] = (char) ('0' + (v % 10));
+            v /= 10;
+            digits++;
+        } while (v != 0);
+        while (digits++ < width) buf[--pos] = '0';
+        return flush(pos);
+    }
+
+    private TextWriter flush(int from) {
+        try {
+            if (out instanceof StringBuilder sb) {
+                sb.append(buf, from, buf.length - from);
+            } else if (out instanceof Writer w) {
+                w.write(buf, from, buf.length - from);
+            } else {
+                for (int i = from; i < buf.length; i++) out.append(buf[i]);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return this;
+    }
+}
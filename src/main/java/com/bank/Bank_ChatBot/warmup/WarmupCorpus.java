@@ -0,0 +1,84 @@
+package com.bank.Bank_ChatBot.warmup;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.bank.Bank_ChatBot.dto.ParseResponse;
+
+/**
+ * Synthetic traffic for the warmup: every chat intent, once with the parse the NLP service would
+ * return and once as UNKNOWN (so the regex heuristics run), plus the ChatService commands. Built
+ * around a few real customer and account ids so the queries return rows.
+ */
+final class WarmupCorpus {
+
+    record ChatCase(String step, String message, ParseResponse parsed) {}
+
+    final List<ChatCase> chat = new ArrayList<>();
+    final List<String> commands = new ArrayList<>();
+
+    static WarmupCorpus build(JdbcTemplate jdbc, int sample) {
+        List<Integer> customers = sample(jdbc, "SELECT customer_id FROM customers ORDER BY customer_id", sample, (rs, i) -> rs.getInt(1));
+        List<String> names = sample(jdbc, "SELECT full_name FROM customers ORDER BY customer_id", sample, (rs, i) -> rs.getString(1));
+        List<Integer> accounts = sample(jdbc, "SELECT account_id FROM accounts ORDER BY account_id", sample, (rs, i) -> rs.getInt(1));
+        if (customers.isEmpty()) customers = List.of(1, 2, 3);
+        if (accounts.isEmpty()) accounts = List.of(101, 102, 103);
+
+        WarmupCorpus c = new WarmupCorpus();
+        for (Integer id : customers) {
+            c.both("balance for customer " + id, "GET_BALANCE_BY_ID", id, 0);
+            c.both("last 5 transactions for customer " + id, "LAST_N_TRANSACTIONS", id, 5);
+            c.both("loan status for customer " + id, "LOAN_STATUS", id, 0);
+            c.both("list loans for customer " + id, "LIST_LOANS", id, 0);
+            c.both("accounts for customer " + id, "GET_ACCOUNTS_BY_ID", id, 0);
+            c.both("how much did customer " + id + " spend last month", "SPENDING_TOTAL", id, 0);
+            c.both("how much did customer " + id + " spend on groceries this year", "SPENDING_TOTAL", id, 0);
+            c.both("top 3 expenses for customer " + id + " this year", "TOP_SPENDING", id, 3);
+            c.both("spending by month for customer " + id, "SPENDING_BY_MONTH", id, 0);
+            c.both("total deposits for customer " + id + " in the last 90 days", "TYPE_TOTAL", id, 0);
+
+            c.commands.add("customer " + id);
+            c.commands.add("accounts for customer " + id);
+            c.commands.add("loans for customer " + id);
+        }
+        for (String name : names) {
+            if (name == null || name.isBlank()) continue;
+            c.chat.add(new ChatCase("chat.nlp-intent", "balance for " + name,
+                    new ParseResponse("GET_BALANCE_FOR_CUSTOMER", 0, 0, name, null)));
+            c.chat.add(new ChatCase("chat.heuristic", "balance for " + name, unknown()));
+        }
+        for (Integer id : accounts) {
+            c.commands.add("balance for account " + id);
+            c.commands.add("transactions for account " + id);
+        }
+        c.chat.add(new ChatCase("chat.heuristic", "what's the weather like", unknown()));
+        c.commands.add("help");
+        return c;
+    }
+
+    private void both(String message, String intent, int customerId, int n) {
+        chat.add(new ChatCase("chat.nlp-intent", message, new ParseResponse(intent, customerId, n, null, null)));
+        chat.add(new ChatCase("chat.heuristic", message, unknown()));
+    }
+
+    private static ParseResponse unknown() {
+        return new ParseResponse("UNKNOWN", 0, 0, null, null);
+    }
+
+    private static <T> List<T> sample(JdbcTemplate jdbc, String sql, int max, RowMapper<T> mapper) {
+        try {
+            return jdbc.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                ps.setMaxRows(max);
+                return ps;
+            }, mapper);
+        } catch (RuntimeException ex) {
+            System.out.println("⚠️ warmup: could not sample ids (" + ex.getMessage() + "); using defaults");
+            return List.of();
+        }
+    }
+}
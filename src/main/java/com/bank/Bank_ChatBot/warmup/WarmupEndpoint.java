@@ -0,0 +1,22 @@
+package com.bank.Bank_ChatBot.warmup;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/** GET /actuator/warmup: the {@link WarmupReport}. */
+@Component
+@Endpoint(id = "warmup")
+public class WarmupEndpoint {
+
+    private final WarmupRunner warmup;
+
+    public WarmupEndpoint(WarmupRunner warmup) {
+        this.warmup = warmup;
+    }
+
+    @ReadOperation
+    public WarmupReport report() {
+        return warmup.report();
+    }
+}
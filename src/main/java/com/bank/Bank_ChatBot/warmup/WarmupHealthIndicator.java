@@ -0,0 +1,31 @@
+package com.bank.Bank_ChatBot.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * "warmup" health contributor, part of the readiness group (management.endpoint.health.group.readiness):
+ * OUT_OF_SERVICE until {@link WarmupRunner} has finished or run out of budget, then UP. A DEGRADED
+ * or FAILED warmup shows in the details (state, errors) rather than keeping the pod unready.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupRunner warmup;
+
+    public WarmupHealthIndicator(WarmupRunner warmup) {
+        this.warmup = warmup;
+    }
+
+    @Override
+    public Health health() {
+        WarmupReport r = warmup.report();
+        Health.Builder h = warmup.finished() ? Health.up() : Health.outOfService();
+        return h.withDetail("state", r.state())
+                .withDetail("messages", r.messages())
+                .withDetail("errors", r.errors())
+                .withDetail("elapsedMs", r.elapsedMs())
+                .build();
+    }
+}
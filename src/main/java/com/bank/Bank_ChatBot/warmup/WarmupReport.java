@@ -0,0 +1,30 @@
+package com.bank.Bank_ChatBot.warmup;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Outcome of the startup warmup, served at /actuator/warmup. Each step's mean over its first and
+ * last {@value WarmupRunner#WINDOW} calls shows how far the cold paths came down. DEGRADED: finished,
+ * but more calls failed than bank.warmup.max-error-rate allows.
+ */
+public record WarmupReport(State state,
+                           Instant startedAt,
+                           long elapsedMs,
+                           long budgetMs,
+                           int messages,
+                           int errors,
+                           Map<String, Step> steps) {
+
+    public enum State {
+        PENDING, RUNNING, COMPLETED, BUDGET_EXHAUSTED, DEGRADED, FAILED, DISABLED;
+
+        /** Readiness waits for this. */
+        public boolean finished() {
+            return this != PENDING && this != RUNNING;
+        }
+    }
+
+    /** {@code firstError} is the step's first failure, null if it had none. */
+    public record Step(int calls, int errors, double firstMeanMicros, double lastMeanMicros, String firstError) {}
+}
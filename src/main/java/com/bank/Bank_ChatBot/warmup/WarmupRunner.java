@@ -0,0 +1,259 @@
+package com.bank.Bank_ChatBot.warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.bank.Bank_ChatBot.controllers.ChatController;
+import com.bank.Bank_ChatBot.controllers.ChatService;
+import com.bank.Bank_ChatBot.warmup.WarmupCorpus.ChatCase;
+import com.bank.Bank_ChatBot.warmup.WarmupReport.State;
+import com.bank.Bank_ChatBot.warmup.WarmupReport.Step;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Drives synthetic chat traffic ({@link WarmupCorpus}) through the real request path once the app
+ * is up, so the JIT, Jackson, Hibernate and the JDBC driver are warm before the first user arrives:
+ * ChatController routing and heuristics (with a stubbed NLP parse, no audit), every BankingService
+ * and analytics query behind them, ChatService commands, and JSON serialization of each reply.
+ *
+ * Runs on its own threads until bank.warmup.messages have been sent or bank.warmup.budget-ms has
+ * passed. Until then {@link WarmupHealthIndicator} holds the readiness group OUT_OF_SERVICE, so
+ * Kubernetes keeps traffic away; the report is at /actuator/warmup.
+ *
+ * The first failure of each step is logged and kept in the report. A run whose error rate is over
+ * bank.warmup.max-error-rate ends DEGRADED, one that gave up after 50 failures in a row FAILED;
+ * either way the pod turns ready, since warmup traffic is no reason to hold back real traffic.
+ */
+@Component
+public class WarmupRunner {
+
+    static final int WINDOW = 128;
+
+    private final Rehearsal rehearsal;
+    private final ObjectMapper json;
+    private final JdbcTemplate jdbc;
+    private final boolean enabled;
+    private final long budgetMs;
+    private final int messages;
+    private final int threads;
+    private final int sampleCustomers;
+    private final double maxErrorRate;
+
+    private final Map<String, StepStats> steps = new LinkedHashMap<>();
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicBoolean gaveUp = new AtomicBoolean();
+    private volatile State state = State.PENDING;
+    private volatile Instant startedAt;
+    private volatile long elapsedMs;
+
+    @Autowired
+    public WarmupRunner(ChatController chat,
+                        ChatService commands,
+                        ObjectMapper json,
+                        JdbcTemplate jdbc,
+                        @Value("${bank.warmup.enabled:true}") boolean enabled,
+                        @Value("${bank.warmup.budget-ms:30000}") long budgetMs,
+                        @Value("${bank.warmup.messages:3000}") int messages,
+                        @Value("${bank.warmup.threads:2}") int threads,
+                        @Value("${bank.warmup.sample-customers:8}") int sampleCustomers,
+                        @Value("${bank.warmup.max-error-rate:0.05}") double maxErrorRate) {
+        this(new Rehearsal() {
+            @Override
+            public Object chat(ChatCase c) {
+                return chat.rehearse(c.message(), c.parsed());
+            }
+
+            @Override
+            public Object command(String command) {
+                return commands.getResponse(command);
+            }
+        }, json, jdbc, enabled, budgetMs, messages, threads, sampleCustomers, maxErrorRate);
+    }
+
+    WarmupRunner(Rehearsal rehearsal, ObjectMapper json, JdbcTemplate jdbc, boolean enabled, long budgetMs,
+                 int messages, int threads, int sampleCustomers, double maxErrorRate) {
+        this.rehearsal = rehearsal;
+        this.json = json;
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+        this.budgetMs = budgetMs;
+        this.messages = messages;
+        this.threads = Math.max(1, threads);
+        this.sampleCustomers = sampleCustomers;
+        this.maxErrorRate = maxErrorRate;
+        for (String step : List.of("chat.nlp-intent", "chat.heuristic", "chat-service", "json")) {
+            steps.put(step, new StepStats());
+        }
+    }
+
+    // last: after the summary rebuild and replica seeding
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void start() {
+        if (!enabled) {
+            state = State.DISABLED;
+            return;
+        }
+        state = State.RUNNING;
+        Thread.ofPlatform().name("warmup").daemon().start(this::run);
+    }
+
+    public boolean finished() {
+        return state.finished();
+    }
+
+    public WarmupReport report() {
+        Map<String, Step> out = new LinkedHashMap<>();
+        steps.forEach((name, s) -> out.put(name, s.snapshot()));
+        long elapsed = state == State.RUNNING && startedAt != null
+                ? System.currentTimeMillis() - startedAt.toEpochMilli() : elapsedMs;
+        return new WarmupReport(state, startedAt, elapsed, budgetMs, sent.get(), errors.get(), out);
+    }
+
+    // ----------------------------- warmup threads ------------------------------
+
+    private void run() {
+        startedAt = Instant.now();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        try {
+            WarmupCorpus corpus = WarmupCorpus.build(jdbc, sampleCustomers);
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                workers.add(Thread.ofPlatform().name("warmup-" + t).daemon().start(() -> drive(corpus, offset, deadline)));
+            }
+            for (Thread w : workers) {
+                w.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) + 1000));
+            }
+            state = gaveUp.get() ? State.FAILED
+                    : errorRate() > maxErrorRate ? State.DEGRADED
+                    : sent.get() >= messages ? State.COMPLETED
+                    : State.BUDGET_EXHAUSTED;
+        } catch (Exception ex) {
+            System.out.println("⚠️ warmup failed: " + ex);
+            state = State.FAILED;
+        } finally {
+            elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (state == State.RUNNING) state = State.FAILED;
+        }
+        log();
+    }
+
+    // each worker walks the corpus from its own offset: chat case, command, chat case, ...
+    private void drive(WarmupCorpus corpus, int offset, long deadline) {
+        int i = offset * 7;
+        int failuresInARow = 0;
+        while (System.nanoTime() < deadline && sent.getAndIncrement() < messages) {
+            ChatCase c = corpus.chat.get(i % corpus.chat.size());
+            String command = corpus.commands.get(i % corpus.commands.size());
+            i++;
+
+            boolean ok = time(c.step(), () -> rehearsal.chat(c)) instanceof Map<?, ?> reply
+                    && time("json", () -> json.writeValueAsBytes(reply)) != null;
+            ok &= time("chat-service", () -> rehearsal.command(command)) != null;
+
+            if (ok) {
+                failuresInARow = 0;
+            } else if (++failuresInARow >= 50) {
+                System.out.println("⚠️ warmup: 50 failures in a row on " + Thread.currentThread().getName() + "; giving up");
+                gaveUp.set(true);
+                break;
+            }
+        }
+        sent.updateAndGet(n -> Math.min(n, messages));   // undo the overshoot of the final check
+    }
+
+    private Object time(String step, Work work) {
+        long t0 = System.nanoTime();
+        try {
+            Object out = work.call();
+            steps.get(step).add(System.nanoTime() - t0, true);
+            return out;
+        } catch (Exception ex) {
+            if (steps.get(step).failed(System.nanoTime() - t0, ex)) {
+                System.out.println("⚠️ warmup: step " + step + " failing, first error: " + ex);
+            }
+            errors.incrementAndGet();
+            return null;
+        }
+    }
+
+    // failed calls over all calls, every step counted
+    private double errorRate() {
+        int calls = 0;
+        for (StepStats s : steps.values()) calls += s.snapshot().calls();
+        return calls == 0 ? 0 : (double) errors.get() / calls;
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        Object call() throws Exception;
+    }
+
+    /** What one synthetic exchange runs; the real chat path, or a stand-in in tests. */
+    interface Rehearsal {
+        Object chat(ChatCase c) throws Exception;
+
+        Object command(String command) throws Exception;
+    }
+
+    private void log() {
+        WarmupReport r = report();
+        StringBuilder sb = new StringBuilder();
+        r.steps().forEach((name, s) -> sb.append(String.format(" %s %.0f->%.0fus", name, s.firstMeanMicros(), s.lastMeanMicros())));
+        System.out.println((r.state() == State.COMPLETED ? "✅" : "⚠️") + " Warmup " + r.state() + ": "
+                + r.messages() + " messages, " + r.errors() + " errors (" + String.format("%.1f%%", errorRate() * 100)
+                + ") in " + r.elapsedMs() + " ms;" + sb);
+    }
+
+    /** Calls, errors and the latency means of the first and the most recent {@value WINDOW} calls. */
+    private static final class StepStats {
+        private final long[] recent = new long[WINDOW];
+        private long firstSum;
+        private int calls;
+        private int failed;
+        private String firstError;
+
+        synchronized void add(long nanos, boolean ok) {
+            if (calls < WINDOW) firstSum += nanos;
+            recent[calls % WINDOW] = nanos;
+            calls++;
+            if (!ok) failed++;
+        }
+
+        /** Records a failed call; true for the step's first failure. */
+        synchronized boolean failed(long nanos, Exception ex) {
+            add(nanos, false);
+            if (firstError != null) return false;
+            firstError = ex.toString();
+            return true;
+        }
+
+        synchronized Step snapshot() {
+            int first = Math.min(calls, WINDOW);
+            long lastSum = 0;
+            for (int k = 0; k < first; k++) lastSum += recent[k];
+            return new Step(calls, failed,
+                    first == 0 ? 0 : firstSum / 1000.0 / first,
+                    first == 0 ? 0 : lastSum / 1000.0 / first,
+                    firstError);
+        }
+    }
+}
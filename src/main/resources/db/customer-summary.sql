@@ -0,0 +1,11 @@
+-- customer_summary read model (CustomerSummaryProjection). Portable across MySQL 8 and H2: apply it
+-- with the other migrations in production; local H2 profiles list it in spring.sql.init.schema-locations.
+CREATE TABLE IF NOT EXISTS customer_summary (
+    customer_id        INT PRIMARY KEY,
+    total_balance      DECIMAL(19,2) NOT NULL,
+    account_count      INT NOT NULL,
+    balances_by_type   VARCHAR(1024) NOT NULL,
+    open_loan_count    INT NOT NULL,
+    outstanding_amount DECIMAL(19,2) NOT NULL,
+    updated_at         TIMESTAMP NOT NULL
+);
@@ -0,0 +1,8 @@
+-- Base tables for local H2 profiles that run with ddl-auto=none (application-test.yml, application-replica.yml).
+CREATE TABLE customers (customer_id INT PRIMARY KEY, full_name VARCHAR(255), email VARCHAR(255), phone VARCHAR(64));
+CREATE TABLE accounts (account_id INT PRIMARY KEY, customer_id INT NOT NULL, account_type VARCHAR(32), balance DECIMAL(15,2), created_at TIMESTAMP);
+CREATE TABLE transactions (transaction_id INT PRIMARY KEY, account_id INT NOT NULL, transaction_date TIMESTAMP, amount DECIMAL(15,2), type VARCHAR(32), description VARCHAR(255));
+CREATE TABLE loans (loan_id INT PRIMARY KEY, customer_id INT NOT NULL, amount DECIMAL(15,2), status VARCHAR(32), start_date TIMESTAMP, end_date TIMESTAMP);
+CREATE INDEX idx_accounts_customer ON accounts (customer_id);
+-- per-account recency: serves the ROW_NUMBER() window behind the accounts intent
+CREATE INDEX idx_transactions_account_date ON transactions (account_id, transaction_date);
@@ -3,12 +3,21 @@
 document.addEventListener('DOMContentLoaded', () => {
   // ---- config ---------------------------------------------------------------
   const CHAT_URL = document.querySelector('meta[name="chat-endpoint"]')?.content?.trim() || '/chat';
+  // SSE variant; leave the meta empty to always wait for the full /chat reply
+  const STREAM_URL = document.querySelector('meta[name="chat-stream-endpoint"]')?.content?.trim() || '';
+  // persistent channel; HTTP (stream, then POST) is only used when the socket is unavailable
+  const WS_PATH = document.querySelector('meta[name="chat-ws-endpoint"]')?.content?.trim() || '';
+  const WS_TIMEOUT_MS = 15000;
+  const WS_RETRY_MIN_MS = 1000, WS_RETRY_MAX_MS = 30000;
   const epEl = document.getElementById('ep'); if (epEl) epEl.textContent = CHAT_URL;
 
   // persist API key across reloads
   const apiKeyInput = document.getElementById('apikey');
   try { apiKeyInput.value = localStorage.apiKey || ''; } catch {}
-  apiKeyInput?.addEventListener('change', () => { localStorage.apiKey = apiKeyInput.value.trim(); });
+  apiKeyInput?.addEventListener('change', () => {
+    localStorage.apiKey = apiKeyInput.value.trim();
+    sendHello();
+  });
 
   const newCid = () => 'cid-' + Math.random().toString(36).slice(2) + Date.now().toString(36);
 
@@ -39,6 +48,8 @@ document.addEventListener('DOMContentLoaded', () => {
     sendBtn.disabled = !ok;
     sendBtn.style.opacity = ok ? '' : '.6';
   };
+  // a request the server may already have received: it must not be resent over HTTP
+  const sentError = (reason) => Object.assign(new Error(reason), { sent: true });
   const bubble = (role, text) => {
     const el = document.createElement('div');
     el.className = `bubble ${role}`;
@@ -173,6 +184,143 @@ document.addEventListener('DOMContentLoaded', () => {
     try { return JSON.parse(text); } catch { return { _raw: text }; }
   }
 
+  // Reads `event:`/`data:` blocks off a text/event-stream body and hands each one to onEvent.
+  async function readEventStream(res, onEvent) {
+    const reader = res.body.getReader();
+    const decoder = new TextDecoder();
+    let buf = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) break;
+      buf += decoder.decode(value, { stream: true });
+      let idx;
+      while ((idx = buf.indexOf('\n\n')) >= 0) {
+        const block = buf.slice(0, idx); buf = buf.slice(idx + 2);
+        let event = 'message'; const data = [];
+        block.split('\n').forEach(line => {
+          if (line.startsWith('event:')) event = line.slice(6).trim();
+          else if (line.startsWith('data:')) data.push(line.slice(5));
+        });
+        let payload = data.join('\n');
+        try { payload = JSON.parse(payload); } catch {}
+        onEvent(event, payload);
+      }
+    }
+  }
+
+  // Streams one message; returns false if the server did not take it, so the caller can fall back
+  // to POST /chat. Once the stream is accepted the request has run: failures throw sentError.
+  async function streamMessage(message, headers, t0) {
+    const res = await fetch(STREAM_URL, {
+      method:'POST',
+      headers: { ...headers, 'Accept': 'text/event-stream' },
+      body: JSON.stringify({ message })
+    });
+    if (!res.ok || !res.body) return false;
+
+    // accumulate sections into the same shape /chat returns so renderResponse can be reused
+    const acc = { reply: '', data: {} };
+    let got = false;
+    try {
+      await readEventStream(res, (event, payload) => {
+        const ms = Math.max(1, Math.round(performance.now() - t0));
+        if (event === 'done') return;
+        got = true;
+        if (event === 'reply') {
+          acc.reply = payload?.reply || acc.reply;
+          Object.assign(acc.data, payload?.data || {});
+          bubble('assistant', acc.reply);
+        } else if (event === 'balance') {
+          Object.assign(acc.data, payload);
+        } else if (event === 'transaction') {
+          (acc.data.transactions ||= []).push(payload);
+        } else if (event === 'loan') {
+          (acc.data.loans ||= []).push(payload);
+        } else if (event === 'account') {
+          (acc.data.accounts ||= []).push(payload);
+        }
+        renderResponse(acc, ms);
+      });
+    } catch (e) {
+      throw Object.assign(sentError('stream broken'), { cause: e });
+    }
+    if (!got) throw sentError('stream ended without a reply');
+    return true;
+  }
+
+  // ---- WebSocket channel ----------------------------------------------------
+  // One socket per page; frames carry the correlation id so replies can arrive out of order.
+  let ws = null;
+  let wsOpening = null;
+  const wsPending = new Map(); // cid -> { resolve, reject, timer }
+  // after a failed connect, HTTP is used until wsRetryAt; the wait doubles per failure (with jitter)
+  let wsRetryAt = 0;
+  let wsRetryMs = WS_RETRY_MIN_MS;
+
+  function wsFailed() {
+    wsRetryAt = Date.now() + wsRetryMs * (0.5 + Math.random() / 2);
+    wsRetryMs = Math.min(wsRetryMs * 2, WS_RETRY_MAX_MS);
+  }
+
+  function wsUrl() {
+    if (/^wss?:/.test(WS_PATH)) return WS_PATH;
+    return (location.protocol === 'https:' ? 'wss://' : 'ws://') + location.host + WS_PATH;
+  }
+
+  function sendHello() {
+    if (ws && ws.readyState === WebSocket.OPEN) {
+      ws.send(JSON.stringify({ t:'hello', key: apiKeyInput.value.trim() }));
+    }
+  }
+
+  function failPending(reason) {
+    wsPending.forEach(p => { clearTimeout(p.timer); p.reject(sentError(reason)); });
+    wsPending.clear();
+  }
+
+  function openSocket() {
+    if (ws && ws.readyState === WebSocket.OPEN) return Promise.resolve(ws);
+    if (wsOpening) return wsOpening;
+    if (Date.now() < wsRetryAt) return Promise.reject(new Error('ws backing off'));
+    wsOpening = new Promise((resolve, reject) => {
+      const sock = new WebSocket(wsUrl());
+      sock.onopen = () => { ws = sock; wsOpening = null; wsRetryMs = WS_RETRY_MIN_MS; sendHello(); resolve(sock); };
+      sock.onerror = () => { if (wsOpening) { wsOpening = null; wsFailed(); reject(new Error('ws connect failed')); } };
+      sock.onclose = (ev) => {
+        if (ws === sock) { ws = null; if (!ev.wasClean) wsFailed(); }
+        failPending('ws closed');
+      };
+      sock.onmessage = (ev) => {
+        let f; try { f = JSON.parse(ev.data); } catch { return; }
+        const p = f.id && wsPending.get(f.id);
+        if (!p) return;
+        wsPending.delete(f.id);
+        clearTimeout(p.timer);
+        p.resolve(f);
+      };
+    });
+    return wsOpening;
+  }
+
+  async function wsRequest(message, cid) {
+    const sock = await openSocket();
+    return new Promise((resolve, reject) => {
+      const timer = setTimeout(() => { wsPending.delete(cid); reject(sentError('ws timeout')); }, WS_TIMEOUT_MS);
+      wsPending.set(cid, { resolve, reject, timer });
+      // the server gives up at the same time, so a late reply isn't computed for nobody
+      sock.send(JSON.stringify({ t:'chat', id: cid, m: message, timeoutMs: WS_TIMEOUT_MS }));
+    });
+  }
+
+  // resending could run the request twice; let the user decide
+  function notAnswered(e) {
+    bubble('assistant', e.message === 'ws timeout'
+        ? 'No reply in time. Please try again.'
+        : 'Connection lost before the reply arrived. Please try again.');
+    console.warn('request sent but not answered', e);
+    setSendEnabledFromInput();
+  }
+
   async function sendMessage(message) {
     if (!message) return;
     bubble('user', message);
@@ -182,6 +330,28 @@ document.addEventListener('DOMContentLoaded', () => {
     const k = apiKeyInput.value.trim(); if (k) headers['X-API-Key'] = k;
 
     const t0 = performance.now();
+    if (WS_PATH && 'WebSocket' in window) {
+      try {
+        const f = await wsRequest(message, headers['X-Correlation-Id']);
+        const body = f.body || {};
+        const ms = Math.max(1, Math.round(performance.now() - t0));
+        bubble('assistant', body.reply || 'Sorry, I did not understand that.');
+        renderResponse(body, ms);
+        setSendEnabledFromInput();
+        return;
+      } catch (e) {
+        if (e.sent) { notAnswered(e); return; }
+        console.warn('ws unavailable, falling back to HTTP', e);
+      }
+    }
+    if (STREAM_URL) {
+      try {
+        if (await streamMessage(message, headers, t0)) { setSendEnabledFromInput(); return; }
+      } catch (e) {
+        if (e.sent) { notAnswered(e); return; }
+        console.warn('stream failed, falling back to POST', e);
+      }
+    }
     try {
       const res = await fetch(CHAT_URL, { method:'POST', headers, body: JSON.stringify({ message }) });
       const body = await parseBody(res);
@@ -209,7 +379,7 @@ document.addEventListener('DOMContentLoaded', () => {
 
   // ---- wire up --------------------------------------------------------------
   sendBtn.disabled = true;
-  bubble('assistant', "Hi! Try:\n- balance for id 101\n- balance for John Doe\n- last 5 transactions for id 101\n- loan status for id 101");
+  bubble('assistant', "Hi! Try:\n- balance for id 101\n- balance for John Doe\n- last 5 transactions for id 101\n- loan status for id 101\n- accounts for id 101");
 
   input.addEventListener('input', setSendEnabledFromInput);
   setSendEnabledFromInput();
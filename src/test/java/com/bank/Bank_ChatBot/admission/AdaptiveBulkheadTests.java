@@ -0,0 +1,159 @@
+package com.bank.Bank_ChatBot.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.bank.Bank_ChatBot.admission.AdaptiveBulkhead.Sample;
+import com.bank.Bank_ChatBot.deadline.Deadline;
+import com.bank.Bank_ChatBot.deadline.DeadlineExceededException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/** The limiter is driven with synthetic latencies through acquire/release; the queue with real threads. */
+class AdaptiveBulkheadTests {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    private AdaptiveBulkhead bulkhead(int initial, int maxQueue, long maxWaitMs) {
+        // tolerance 2x, slack 5 ms, backoff 0.9
+        return new AdaptiveBulkhead("test", initial, 1, 64, maxQueue, maxWaitMs, 2.0, 5, 0.9, meters);
+    }
+
+    private static void complete(AdaptiveBulkhead b, long millis, Sample sample) {
+        b.acquire();
+        b.release(TimeUnit.MILLISECONDS.toNanos(millis), sample);
+    }
+
+    @Test
+    void limitGrowsWhileInUseAndLatencyStaysAtBaseline() {
+        AdaptiveBulkhead b = bulkhead(4, 0, 0);
+        for (int i = 0; i < 50; i++) complete(b, 10, Sample.SUCCESS);
+        assertThat(b.getLimit()).as("idle: one call at a time uses none of the headroom").isEqualTo(4);
+
+        b.acquire();   // keep one more call in flight so the limit is half used
+        for (int i = 0; i < 50; i++) complete(b, 10, Sample.SUCCESS);
+        assertThat(b.getLimit()).isGreaterThan(4);
+    }
+
+    @Test
+    void decreasesAtMostOncePerLimitsWorthOfCompletions() {
+        AdaptiveBulkhead b = bulkhead(10, 0, 0);
+        for (int i = 0; i < 10; i++) complete(b, 10, Sample.SUCCESS);
+
+        complete(b, 10, Sample.FAILURE);
+        assertThat(b.getLimit()).isEqualTo(9);
+        for (int i = 0; i < 8; i++) complete(b, 10, Sample.FAILURE);
+        assertThat(b.getLimit()).as("same window").isEqualTo(9);
+        complete(b, 10, Sample.FAILURE);
+        assertThat(b.getLimit()).isEqualTo(8);   // 9 * 0.9
+
+        // congestion counts like a failure: smoothed latency far above the 10 ms baseline
+        for (int i = 0; i < 8; i++) complete(b, 200, Sample.SUCCESS);
+        assertThat(b.getLimit()).isEqualTo(7);
+    }
+
+    @Test
+    void callerDeadlinesAndRejectionsDoNotShrinkTheLimit() {
+        AdaptiveBulkhead b = bulkhead(10, 0, 0);
+        for (int i = 0; i < 200; i++) {
+            assertThatThrownBy(() -> b.execute(() -> { throw new DeadlineExceededException("nlp", 1); }))
+                    .isInstanceOf(DeadlineExceededException.class);
+            assertThatThrownBy(() -> b.execute(() -> { throw new BulkheadFullException("nlp", "queue full"); }))
+                    .isInstanceOf(BulkheadFullException.class);
+        }
+        assertThat(b.getLimit()).isEqualTo(10);
+        assertThat(b.getInFlight()).isZero();
+
+        // a real dependency failure still does
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> b.execute(() -> { throw new IllegalStateException("db down"); }));
+        }
+        assertThat(b.getLimit()).isLessThan(10);
+    }
+
+    @Test
+    void rejectsAtOnceWhenTheQueueIsFull() {
+        AdaptiveBulkhead b = bulkhead(1, 0, 5_000);
+        b.acquire();
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> b.execute(() -> "late"))
+                .isInstanceOf(BulkheadFullException.class)
+                .hasMessageContaining("queue full");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(meters.get("chat.bulkhead.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void queuedCallerGivesUpAfterMaxWait() {
+        AdaptiveBulkhead b = bulkhead(1, 4, 100);
+        b.acquire();
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> b.execute(() -> "late"))
+                .isInstanceOf(BulkheadFullException.class)
+                .hasMessageContaining("timed out");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(90L, 2_000L);
+        assertThat(b.getQueued()).isZero();
+    }
+
+    @Test
+    void queuedCallerWithAShorterDeadlineGivesUpAtTheDeadline() {
+        AdaptiveBulkhead b = bulkhead(1, 4, 10_000);
+        b.acquire();
+        Deadline deadline = Deadline.afterMillis(100);
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> Deadline.within(deadline, () -> b.execute(() -> "late")))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000);
+        assertThat(deadline.cancelledAt()).isEqualTo("test.queue");
+        assertThat(meters.get("chat.bulkhead.rejected").counter().count()).isZero();
+    }
+
+    @Test
+    void freedSlotsGoToWaitersInArrivalOrder() throws Exception {
+        AdaptiveBulkhead b = bulkhead(1, 4, 10_000);
+        b.acquire();
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch holdFirst = new CountDownLatch(1);
+        CompletableFuture<?> first = CompletableFuture.runAsync(() -> b.execute(() -> {
+            order.add("first");
+            return await(holdFirst);
+        }));
+        awaitQueued(b, 1);
+        CompletableFuture<?> second = CompletableFuture.runAsync(() -> b.execute(() -> order.add("second")));
+        awaitQueued(b, 2);
+
+        b.release(0, Sample.NONE);
+        // the slot went straight to the oldest waiter: nothing is free for a newcomer to take
+        assertThat(b.getInFlight()).isEqualTo(1);
+        assertThat(b.getQueued()).isEqualTo(1);
+
+        holdFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(order).containsExactly("first", "second");
+        assertThat(b.getInFlight()).isZero();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void awaitQueued(AdaptiveBulkhead b, int n) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (b.getQueued() < n && System.nanoTime() < until) Thread.sleep(1);
+        assertThat(b.getQueued()).isEqualTo(n);
+    }
+}
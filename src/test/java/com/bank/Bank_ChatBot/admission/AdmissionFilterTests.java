@@ -0,0 +1,140 @@
+package com.bank.Bank_ChatBot.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.FilterChain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionFilterTests {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    private AdmissionService admission(int burst, int maxInFlight, int maxKeys, double newKeysPerSecond) {
+        return new AdmissionService(meters, true, 0.001, burst, maxInFlight, maxKeys, newKeysPerSecond, List.of("known"));
+    }
+
+    private static MockHttpServletRequest request(String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/chat");
+        request.setAsyncSupported(true);
+        if (key != null) request.addHeader(AdmissionFilter.API_KEY_HEADER, key);
+        return request;
+    }
+
+    private double inFlight() {
+        return meters.get("chat.admission.in_flight").gauge().value();
+    }
+
+    @Test
+    void rateLimitedRequestsGet429WithRetryAfter() throws Exception {
+        AdmissionFilter filter = new AdmissionFilter(admission(2, 100, 100, 100));
+        FilterChain ok = (req, res) -> { };
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request("k1"), response, ok);
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        filter.doFilter(request("k1"), limited, ok);
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(limited.getHeader("Retry-After"))).isGreaterThanOrEqualTo(1);
+        assertThat(limited.getContentAsString()).contains("RateLimited");
+
+        // another key has its own bucket
+        MockHttpServletResponse other = new MockHttpServletResponse();
+        filter.doFilter(request("k2"), other, ok);
+        assertThat(other.getStatus()).isEqualTo(200);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void shedsWhenInFlightCapIsReachedAndReleasesAsyncSlotsOnCompletion() throws Exception {
+        AdmissionFilter filter = new AdmissionFilter(admission(100, 1, 100, 100));
+
+        MockHttpServletRequest async = request("k1");
+        filter.doFilter(async, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertThat(inFlight()).isEqualTo(1);   // held past the filter while the reply is pending
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        filter.doFilter(request("k2"), shed, (req, res) -> { });
+        assertThat(shed.getStatus()).isEqualTo(429);
+        assertThat(shed.getContentAsString()).contains("Overloaded");
+
+        ((MockAsyncContext) async.getAsyncContext()).complete();
+        assertThat(inFlight()).isZero();
+
+        MockHttpServletResponse after = new MockHttpServletResponse();
+        filter.doFilter(request("k2"), after, (req, res) -> { });
+        assertThat(after.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void keylessClientsAreLimitedPerAddress() throws Exception {
+        AdmissionFilter filter = new AdmissionFilter(admission(1, 100, 100, 100));
+        FilterChain ok = (req, res) -> { };
+
+        MockHttpServletRequest noisy = request(null);
+        noisy.setRemoteAddr("10.0.0.1");
+        filter.doFilter(noisy, new MockHttpServletResponse(), ok);
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        filter.doFilter(noisy, limited, ok);
+        assertThat(limited.getStatus()).isEqualTo(429);
+
+        // another keyless client is unaffected
+        MockHttpServletRequest quiet = request(null);
+        quiet.setRemoteAddr("10.0.0.2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(quiet, response, ok);
+        assertThat(response.getStatus()).isEqualTo(200);
+        // both counted under the one bounded tag
+        assertThat(meters.get("chat.admission.requests").tag("key", AdmissionService.ANONYMOUS)
+                .tag("outcome", "admitted").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rotatingKeysShareOneBucketAndBoundedMetrics() throws Exception {
+        AdmissionService admission = admission(1, 1000, 1000, 0.001);   // one new key, then overflow
+        assertThat(admission.tryAcquire("fresh-0").admitted()).isTrue();
+        for (int i = 1; i <= 500; i++) admission.tryAcquire("fresh-" + i);
+
+        // fresh-1..500 all drew from the single overflow bucket (burst 1)
+        assertThat(meters.get("chat.admission.requests").tag("key", AdmissionService.OVERFLOW)
+                .tag("outcome", "admitted").counter().count()).isEqualTo(1);
+        assertThat(admission.trackedKeys()).isEqualTo(1);
+        // known keys, anonymous, overflow, other: three outcomes each, whatever the traffic
+        assertThat(meters.find("chat.admission.requests").counters()).hasSize(12);
+        // known keys skip the new-key budget
+        assertThat(admission.tryAcquire("known").admitted()).isTrue();
+    }
+
+    @Test
+    void fullMapEvictsOnlyIdleBuckets() {
+        AdmissionService admission = new AdmissionService(meters, true, 1_000_000, 1, 1000, 1, 1000, List.of());
+        assertThat(admission.tryAcquire("a").admitted()).isTrue();
+        // "a" refills within a microsecond, so it is idle and can make room for "b"
+        busyWait();
+        assertThat(admission.tryAcquire("b").admitted()).isTrue();
+        assertThat(admission.trackedKeys()).isEqualTo(1);
+
+        AdmissionService slow = new AdmissionService(new SimpleMeterRegistry(), true, 0.001, 1, 1000, 1, 1000, List.of());
+        assertThat(slow.tryAcquire("a").admitted()).isTrue();
+        // "a" is still drained: "b" goes to overflow instead of resetting a's bucket
+        assertThat(slow.tryAcquire("b").admitted()).isTrue();
+        assertThat(slow.tryAcquire("c").admitted()).isFalse();
+        assertThat(slow.tryAcquire("a").admitted()).isFalse();
+        assertThat(slow.trackedKeys()).isEqualTo(1);
+    }
+
+    private static void busyWait() {
+        long until = System.nanoTime() + 50_000;
+        while (System.nanoTime() < until) Thread.onSpinWait();
+    }
+}
@@ -0,0 +1,71 @@
+package com.bank.Bank_ChatBot.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstThenOneTokenPerInterval() {
+        long t0 = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(2, 3, t0);   // 500 ms per token
+
+        assertThat(bucket.tryAcquire(t0)).isTrue();
+        assertThat(bucket.tryAcquire(t0)).isTrue();
+        assertThat(bucket.tryAcquire(t0)).isTrue();
+        assertThat(bucket.tryAcquire(t0)).isFalse();
+        assertThat(bucket.isIdle(t0)).isFalse();
+
+        // Retry-After source: the next token is one interval away, then available
+        assertThat(bucket.nanosUntilNextToken(t0)).isEqualTo(SECOND / 2);
+        assertThat(bucket.tryAcquire(t0 + SECOND / 2 - 1)).isFalse();
+        assertThat(bucket.nanosUntilNextToken(t0 + SECOND / 2)).isZero();
+        assertThat(bucket.tryAcquire(t0 + SECOND / 2)).isTrue();
+        assertThat(bucket.tryAcquire(t0 + SECOND / 2)).isFalse();
+
+        // full again after burst * interval of silence
+        assertThat(bucket.isIdle(t0 + 2 * SECOND)).isTrue();
+        int granted = 0;
+        while (bucket.tryAcquire(t0 + 2 * SECOND)) granted++;
+        assertThat(granted).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentCallersNeverGetMoreThanTheBurst() throws Exception {
+        long now = 5 * SECOND;
+        int threads = 8, attempts = 1_000, burst = 50;
+        for (int round = 0; round < 20; round++) {
+            TokenBucket bucket = new TokenBucket(1, burst, now);   // no refill within the instant
+            CountDownLatch go = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    results.add(pool.submit(() -> {
+                        go.await();
+                        int ok = 0;
+                        for (int i = 0; i < attempts; i++) if (bucket.tryAcquire(now)) ok++;
+                        return ok;
+                    }));
+                }
+                go.countDown();
+                int total = 0;
+                for (Future<Integer> f : results) total += f.get();
+                assertThat(total).isEqualTo(burst);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+}
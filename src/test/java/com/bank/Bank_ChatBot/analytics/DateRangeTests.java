@@ -0,0 +1,67 @@
+package com.bank.Bank_ChatBot.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class DateRangeTests {
+
+    // a Wednesday
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 14);
+
+    private static void assertRange(String text, String from, String to) {
+        DateRange r = DateRange.parse(text, TODAY);
+        assertThat(r.from()).as(text).isEqualTo(LocalDate.parse(from));
+        assertThat(r.to()).as(text).isEqualTo(LocalDate.parse(to));
+        assertThat(r.from()).as(text).isBeforeOrEqualTo(r.to());
+    }
+
+    @Test
+    void calendarPeriods() {
+        assertRange("spending this week", "2026-10-12", "2026-10-14");
+        assertRange("spending last week", "2026-10-05", "2026-10-11");
+        assertRange("spending previous month", "2026-09-01", "2026-09-30");
+        assertRange("spending last month", "2026-09-01", "2026-09-30");
+        assertRange("spending this month", "2026-10-01", "2026-10-14");
+        assertRange("spending last year", "2025-01-01", "2025-12-31");
+        assertRange("spending in 2024", "2024-01-01", "2024-12-31");
+        assertRange("spent yesterday", "2026-10-13", "2026-10-13");
+        assertRange("spent today", "2026-10-14", "2026-10-14");
+    }
+
+    @Test
+    void rollingPeriodsEndToday() {
+        assertRange("spending in the past week", "2026-10-08", "2026-10-14");
+        assertRange("spending over the past month", "2026-09-15", "2026-10-14");
+        assertRange("spending in the past year", "2025-10-15", "2026-10-14");
+        assertRange("spending last 90 days", "2026-07-17", "2026-10-14");
+        assertRange("spending past 2 weeks", "2026-10-01", "2026-10-14");
+        assertRange("spending last 1 month", "2026-09-15", "2026-10-14");
+        assertThat(DateRange.parse("past month", TODAY).label()).isEqualTo("in the last 1 month");
+    }
+
+    @Test
+    void zeroCountIsOneUnitNotAnInvertedRange() {
+        assertRange("spending last 0 days", "2026-10-14", "2026-10-14");
+        assertRange("spending last 0 months", "2026-09-15", "2026-10-14");
+    }
+
+    @Test
+    void fallsBackWhenNoPeriodIsNamed() {
+        assertRange("how much did I spend", "2026-09-15", "2026-10-14");
+        DateRange six = DateRange.lastMonths(TODAY, 6);
+        assertThat(DateRange.parse("spending by month", TODAY, six)).isSameAs(six);
+        assertThat(six.from()).isEqualTo(LocalDate.of(2026, 5, 1));
+    }
+
+    @Test
+    void spansBeyondFiveYearsAreFlagged() {
+        assertThat(DateRange.parse("spending last 5 years", TODAY).exceedsMaxSpan()).isFalse();
+        assertThat(DateRange.parse("spending last 60 months", TODAY).exceedsMaxSpan()).isFalse();
+        assertThat(DateRange.parse("spending last 61 months", TODAY).exceedsMaxSpan()).isTrue();
+        assertThat(DateRange.parse("spending last 999 years", TODAY).exceedsMaxSpan()).isTrue();
+        assertThat(DateRange.parse("spending last 999 days", TODAY).exceedsMaxSpan()).isFalse();
+    }
+}
@@ -0,0 +1,120 @@
+package com.bank.Bank_ChatBot.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.Bank_ChatBot.admission.AdaptiveBulkhead;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Filter;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Totals;
+import com.bank.Bank_ChatBot.query.QueryRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/** Customer 1 has 20,000 transactions (one a day per account slot), customer 2 has 100, one a day from 2026-01-01. */
+class SpendingAnalyticsTests {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void seed() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:analytics;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        jdbc.update("INSERT INTO accounts (account_id, customer_id, account_type, balance) VALUES (10, 1, 'CHECKING', 0), (20, 2, 'CHECKING', 0)");
+        List<Object[]> txs = new ArrayList<>();
+        for (int i = 1; i <= 20_000; i++) {
+            txs.add(new Object[]{i, 10, Timestamp.valueOf(START.minusDays(i % 300).atTime(12, 0)), new BigDecimal("-1.00"), "PAYMENT", "Coffee"});
+        }
+        for (int i = 0; i < 100; i++) {
+            txs.add(new Object[]{100_000 + i, 20, Timestamp.valueOf(START.plusDays(i).atTime(12, 0)), new BigDecimal("-2.50"), "PAYMENT", "Groceries"});
+        }
+        jdbc.batchUpdate("INSERT INTO transactions (transaction_id, account_id, transaction_date, amount, type, description) VALUES (?, ?, ?, ?, ?, ?)", txs);
+    }
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    private SpendingAnalytics analytics(int maxTransactions) {
+        QueryRegistry queries = new QueryRegistry(jdbc, meters, new StandardEnvironment());
+        AdaptiveBulkhead db = new AdaptiveBulkhead("db", 64, 1, 64, 64, 1000, 2.0, 50, 0.9, meters);
+        return new SpendingAnalytics(queries, db, meters, 100, maxTransactions);
+    }
+
+    private long loads(String query) {
+        return meters.get("chat.query").tag("query", query).tag("outcome", "success").timer().count();
+    }
+
+    private double lookups(String result) {
+        return meters.get("chat.analytics.lookups").tag("result", result).counter().count();
+    }
+
+    @Test
+    void concurrentFirstQuestionsShareOneLoad() throws Exception {
+        SpendingAnalytics analytics = analytics(100_000);
+        DateRange all = new DateRange(START.minusYears(1), START, "all");
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<Totals>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    go.await();
+                    return analytics.total(1, all, Filter.spending(null));
+                }));
+            }
+            go.countDown();
+            for (Future<Totals> f : results) assertThat(f.get().count()).isEqualTo(20_000);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads("analytics.customer-transactions")).isEqualTo(1);
+        assertThat(lookups("miss")).isEqualTo(1);
+        assertThat(lookups("coalesced") + lookups("hit")).isEqualTo(threads - 1);
+        assertThat(analytics.cachedCustomers()).isEqualTo(1);
+    }
+
+    @Test
+    void historyOverTheCapIsReadPerPeriodAndNotCached() {
+        SpendingAnalytics analytics = analytics(50);
+        DateRange january = new DateRange(START, START.withDayOfMonth(31), "in January");
+
+        Totals t = analytics.total(2, january, Filter.spending(null));
+        assertThat(t.count()).isEqualTo(31);
+        assertThat(t.amount()).isEqualByComparingTo("-77.50");
+        assertThat(analytics.cachedCustomers()).isZero();
+
+        // the full history is not read again for the next question
+        assertThat(analytics.total(2, january, Filter.spending("groceries")).count()).isEqualTo(31);
+        assertThat(loads("analytics.customer-transactions")).isEqualTo(1);
+        assertThat(lookups("oversized")).isEqualTo(1);
+
+        DateRange spring = new DateRange(START, START.plusDays(99), "this spring");
+        assertThatThrownBy(() -> analytics.total(2, spring, Filter.spending(null)))
+                .isInstanceOf(TooManyTransactionsException.class);
+
+        // invalidate() gives the customer another chance at being cached
+        analytics.invalidate(2);
+        analytics.total(2, january, Filter.spending(null));
+        assertThat(loads("analytics.customer-transactions")).isEqualTo(2);
+    }
+}
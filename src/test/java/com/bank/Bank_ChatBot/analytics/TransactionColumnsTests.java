@@ -0,0 +1,157 @@
+package com.bank.Bank_ChatBot.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Direction;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Filter;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Group;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics.Totals;
+
+/** Column-store aggregates must match a brute-force pass over the same rows, through inserts, updates and deletes. */
+class TransactionColumnsTests {
+
+    private record Tx(int id, int day, long cents, String type, String description) {}
+
+    private static final String[] TYPES = {"DEPOSIT", "WITHDRAWAL", "PAYMENT", "TRANSFER"};
+    private static final String[] DESCRIPTIONS = {"Groceries", "Rent", "Coffee shop", "Salary", "ATM withdrawal", "Grocery outlet", ""};
+    private static final int BASE = (int) LocalDate.of(2024, 1, 1).toEpochDay();
+
+    @Test
+    void matchesBruteForceThroughUpdates() {
+        SplittableRandom rnd = new SplittableRandom(7);
+        Map<Integer, Tx> truth = new HashMap<>();
+        TransactionColumns columns = new TransactionColumns(8);
+
+        List<Tx> initial = new ArrayList<>();
+        for (int id = 1; id <= 2_000; id++) initial.add(random(rnd, id));
+        initial.sort((a, b) -> Integer.compare(a.day(), b.day()));
+        for (Tx t : initial) {
+            columns.appendSorted(t.id(), t.day(), t.cents(), t.type(), t.description());
+            truth.put(t.id(), t);
+        }
+
+        for (int round = 0; round < 20; round++) {
+            checkAll(rnd, columns, truth);
+            for (int i = 0; i < 200; i++) {
+                int id = rnd.nextInt(1, 2_400);   // updates, fresh inserts and removes
+                if (rnd.nextInt(5) == 0) {
+                    columns.remove(id);
+                    truth.remove(id);
+                } else {
+                    Tx t = random(rnd, id);
+                    columns.upsert(t.id(), t.day(), t.cents(), t.type(), t.description());
+                    truth.put(id, t);
+                }
+            }
+        }
+        checkAll(rnd, columns, truth);
+        assertThat(columns.size()).isEqualTo(truth.size());
+    }
+
+    @Test
+    void byMonthIncludesEmptyMonthsAndStopsAtRangeEnd() {
+        TransactionColumns columns = new TransactionColumns(8);
+        columns.appendSorted(1, (int) LocalDate.of(2025, 1, 31).toEpochDay(), -1000, "PAYMENT", "Rent");
+        columns.appendSorted(2, (int) LocalDate.of(2025, 3, 1).toEpochDay(), -250, "PAYMENT", "Coffee");
+        columns.appendSorted(3, (int) LocalDate.of(2025, 3, 20).toEpochDay(), -99, "PAYMENT", "Coffee");
+
+        List<Group> months = columns.byMonth((int) LocalDate.of(2025, 1, 15).toEpochDay(),
+                (int) LocalDate.of(2025, 3, 10).toEpochDay(), Filter.spending(null));
+        assertThat(months).containsExactly(new Group("2025-01", -1000, 1), new Group("2025-02", 0, 0),
+                new Group("2025-03", -250, 1));
+    }
+
+    @Test
+    void parsesPeriods() {
+        LocalDate today = LocalDate.of(2025, 3, 12);   // a Wednesday
+        assertThat(DateRange.parse("spent last month?", today))
+                .isEqualTo(new DateRange(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28), "last month"));
+        assertThat(DateRange.parse("this week", today).from()).isEqualTo(LocalDate.of(2025, 3, 10));
+        assertThat(DateRange.parse("in the last 90 days", today).from()).isEqualTo(today.minusDays(89));
+        assertThat(DateRange.parse("in 2024", today))
+                .isEqualTo(new DateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), "in 2024"));
+        assertThat(DateRange.parse("how much", today)).isEqualTo(DateRange.lastDays(today, 30));
+    }
+
+    // ----------------------------- brute force ------------------------------
+
+    private static void checkAll(SplittableRandom rnd, TransactionColumns columns, Map<Integer, Tx> truth) {
+        List<Filter> filters = List.of(Filter.spending(null), Filter.spending("groc"), Filter.ofType("withdrawal"),
+                new Filter(Direction.CREDIT, null, null), new Filter(Direction.ANY, "PAYMENT", "rent"),
+                Filter.ofType("NO_SUCH_TYPE"));
+        for (int q = 0; q < 30; q++) {
+            int from = BASE + rnd.nextInt(-10, 400);
+            int to = from + rnd.nextInt(0, 200);
+            for (Filter f : filters) {
+                assertThat(columns.total(from, to, f)).isEqualTo(total(truth, from, to, f));
+                assertThat(columns.byMonth(from, to, f)).isEqualTo(byMonth(truth, from, to, f));
+                List<Group> top = columns.topDescriptions(from, to, f, 3);
+                Map<String, Group> all = byDescription(truth, from, to, f);
+                assertThat(top).hasSizeLessThanOrEqualTo(3).allSatisfy(g -> assertThat(all).containsEntry(g.label(), g));
+                if (!top.isEmpty()) {
+                    long weakest = Math.abs(top.get(top.size() - 1).cents());
+                    long outside = all.values().stream().filter(g -> !top.contains(g)).mapToLong(g -> Math.abs(g.cents())).max().orElse(0);
+                    assertThat(weakest).isGreaterThanOrEqualTo(top.size() == 3 ? outside : 0);
+                }
+            }
+        }
+    }
+
+    private static boolean matches(Tx t, int from, int to, Filter f) {
+        if (t.day() < from || t.day() > to) return false;
+        if (f.direction() == Direction.DEBIT && t.cents() >= 0) return false;
+        if (f.direction() == Direction.CREDIT && t.cents() <= 0) return false;
+        if (f.type() != null && !t.type().equalsIgnoreCase(f.type())) return false;
+        return f.keyword() == null || t.description().toLowerCase(Locale.ROOT).contains(f.keyword().toLowerCase(Locale.ROOT));
+    }
+
+    private static Totals total(Map<Integer, Tx> truth, int from, int to, Filter f) {
+        long sum = 0;
+        int count = 0;
+        for (Tx t : truth.values()) {
+            if (matches(t, from, to, f)) {
+                sum += t.cents();
+                count++;
+            }
+        }
+        return new Totals(sum, count);
+    }
+
+    private static List<Group> byMonth(Map<Integer, Tx> truth, int from, int to, Filter f) {
+        List<Group> out = new ArrayList<>();
+        for (LocalDate m = LocalDate.ofEpochDay(from).withDayOfMonth(1); m.toEpochDay() <= to; m = m.plusMonths(1)) {
+            int lo = Math.max(from, (int) m.toEpochDay());
+            int hi = Math.min(to, (int) m.plusMonths(1).toEpochDay() - 1);
+            Totals t = total(truth, lo, hi, f);
+            out.add(new Group(String.format("%d-%02d", m.getYear(), m.getMonthValue()), t.cents(), t.count()));
+        }
+        return out;
+    }
+
+    private static Map<String, Group> byDescription(Map<Integer, Tx> truth, int from, int to, Filter f) {
+        Map<String, Group> out = new LinkedHashMap<>();
+        for (Tx t : truth.values()) {
+            if (!matches(t, from, to, f)) continue;
+            out.merge(t.description(), new Group(t.description(), t.cents(), 1),
+                    (a, b) -> new Group(a.label(), a.cents() + b.cents(), a.count() + 1));
+        }
+        return out;
+    }
+
+    private static Tx random(SplittableRandom rnd, int id) {
+        long cents = rnd.nextLong(-50_000, 50_000);
+        return new Tx(id, BASE + rnd.nextInt(0, 365), cents == 0 ? 1 : cents,
+                TYPES[rnd.nextInt(TYPES.length)], DESCRIPTIONS[rnd.nextInt(DESCRIPTIONS.length)]);
+    }
+}
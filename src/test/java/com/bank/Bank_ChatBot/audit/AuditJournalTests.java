@@ -0,0 +1,164 @@
+package com.bank.Bank_ChatBot.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuditJournalTests {
+
+    @TempDir
+    Path dir;
+
+    private static ByteBuffer bytes(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> replayStrings() throws IOException {
+        List<String> out = new ArrayList<>();
+        SegmentedLog.replay(dir, "t", b -> {
+            byte[] a = new byte[b.remaining()];
+            b.get(a);
+            out.add(new String(a, StandardCharsets.UTF_8));
+        });
+        return out;
+    }
+
+    @Test
+    void rotatesRetainsAndResumesAfterReopen() throws IOException {
+        try (SegmentedLog log = new SegmentedLog(dir, "t", 64, 0)) {
+            for (int i = 0; i < 10; i++) log.append(bytes("record-" + i + "-xxxxxxxxxx"));   // 2 per segment
+            assertThat(log.currentSegment()).isEqualTo(5);
+        }
+        try (SegmentedLog log = new SegmentedLog(dir, "t", 64, 3)) {
+            log.append(bytes("after-reopen"));        // segment 5 is full: rotates to 6, keeps 4..6
+            log.append(bytes("record-x-xxxxxxxxxx"));
+        }
+        assertThat(replayStrings()).containsExactly(
+                "record-6-xxxxxxxxxx", "record-7-xxxxxxxxxx", "record-8-xxxxxxxxxx", "record-9-xxxxxxxxxx",
+                "after-reopen", "record-x-xxxxxxxxxx");
+    }
+
+    @Test
+    void tornTailIsSkippedAndWritingMovesToANewSegment() throws IOException {
+        try (SegmentedLog log = new SegmentedLog(dir, "t", 1024, 0)) {
+            log.append(bytes("one"));
+            log.append(bytes("two"));
+        }
+        // corrupt the second record's payload, as a crash mid-write would
+        Path first = dir.resolve("t-%020d.log".formatted(1));
+        try (FileChannel ch = FileChannel.open(first, StandardOpenOption.WRITE)) {
+            ch.write(bytes("X"), SegmentedLog.HEADER + 3 + SegmentedLog.HEADER);
+        }
+        try (SegmentedLog log = new SegmentedLog(dir, "t", 1024, 0)) {
+            assertThat(log.currentSegment()).isEqualTo(2);
+            log.append(bytes("three"));
+        }
+        assertThat(replayStrings()).containsExactly("one", "three");
+    }
+
+    @Test
+    void journalWritesEventsInBackgroundAndReaderReplaysThem() throws Exception {
+        AuditJournal journal = new AuditJournal(new ObjectMapper(), new SimpleMeterRegistry(),
+                true, dir.toString(), 1, 0, 1000, 16, 10);
+        journal.start();
+        for (int i = 0; i < 100; i++) {
+            assertThat(journal.record(new AuditEvent(1000L + i, "http", "balance for id " + i, "GET_BALANCE_BY_ID",
+                    i % 2 == 0 ? i : null, "Total balance ...", Map.of("customerId", i, "amount", 12.5)))).isTrue();
+        }
+        journal.stop();
+        assertThat(journal.record(new AuditEvent(0, "http", "late", "UNKNOWN", null, null, null))).isFalse();
+
+        List<AuditEvent> read = new ArrayList<>();
+        AuditJournalReader.replay(dir, read::add);
+        assertThat(read).hasSize(100);
+        AuditEvent e = read.get(42);
+        assertThat(e.timestamp()).isEqualTo(1042L);
+        assertThat(e.question()).isEqualTo("balance for id 42");
+        assertThat(e.customerId()).isEqualTo(42);
+        assertThat(read.get(43).customerId()).isNull();
+        assertThat(e.data().toString()).contains("\"amount\":12.5");
+        assertThat(Files.list(dir).count()).isEqualTo(1);
+    }
+
+    /** A log whose fsync fails until {@code forceWorks}, and whose append throws an Error once {@code crash} is set. */
+    private class FaultyLog extends SegmentedLog {
+        volatile boolean forceWorks;
+        volatile boolean crash;
+
+        FaultyLog() throws IOException {
+            super(dir, AuditJournal.PREFIX, 1024 * 1024, 0);
+        }
+
+        @Override
+        void force() {
+            if (!forceWorks) throw new UncheckedIOException(new IOException("disk gone"));
+            super.force();
+        }
+
+        @Override
+        void append(ByteBuffer payload) throws IOException {
+            if (crash) throw new InternalError("a fault occurred in an unsafe memory access operation");
+            super.append(payload);
+        }
+    }
+
+    private static AuditEvent event(int i) {
+        return new AuditEvent(i, "http", "q" + i, "UNKNOWN", null, null, null);
+    }
+
+    @Test
+    void writerSurvivesForceFailuresAndReportsDownWhenItDies() throws Exception {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        AuditJournal journal = new AuditJournal(new ObjectMapper(), meters, true, dir.toString(), 1, 0, 1000, 16, 1);
+        AuditHealthIndicator health = new AuditHealthIndicator(journal);
+        FaultyLog log = new FaultyLog();
+        journal.start(log);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(journal.record(event(i))).isTrue();
+            Thread.sleep(5);   // let each batch reach a force
+        }
+        awaitUntil(() -> meters.get("chat.audit.events").tag("outcome", "written").counter().count() == 5);
+        assertThat(meters.get("chat.audit.force.failures").counter().count()).isPositive();
+        assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+
+        log.forceWorks = true;
+        log.crash = true;
+        assertThat(journal.record(event(5))).isTrue();
+        awaitUntil(() -> journal.writerFailure() != null);
+        assertThat(journal.record(event(6))).isFalse();
+        assertThat(health.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.health().getDetails().get("error").toString()).contains("InternalError");
+        journal.stop();
+
+        List<AuditEvent> read = new ArrayList<>();
+        AuditJournalReader.replay(dir, read::add);
+        assertThat(read).extracting(AuditEvent::question).containsExactly("q0", "q1", "q2", "q3", "q4");
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < until) Thread.sleep(1);
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
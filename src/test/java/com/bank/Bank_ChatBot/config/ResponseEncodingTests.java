@@ -0,0 +1,170 @@
+package com.bank.Bank_ChatBot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.bank.Bank_ChatBot.entities.Account;
+import com.bank.Bank_ChatBot.entities.Customer;
+import com.bank.Bank_ChatBot.entities.Loan;
+import com.bank.Bank_ChatBot.entities.Transaction;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * JSON against the CBOR and Smile encodings of {@link ResponseEncodingConfig}, on the replies that
+ * motivated them: a chat transactions list and the /api/customers entity graph. The round trip
+ * always runs; the size / CPU table only with {@code mvn test -Dtest=ResponseEncodingTests -Dbench=true}.
+ */
+class ResponseEncodingTests {
+
+    // what Boot's builder does by default, minus the classpath scan
+    private static Jackson2ObjectMapperBuilder builder() {
+        return new Jackson2ObjectMapperBuilder().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static final ObjectMapper JSON = builder().build();
+    private static final Map<String, ObjectMapper> FORMATS = Map.of(
+            "json", JSON,
+            "cbor", ResponseEncodingConfig.cbor(builder()),
+            "smile", ResponseEncodingConfig.smile(builder()));
+    private static final List<String> ORDER = List.of("json", "cbor", "smile");
+
+    /** Shaped like ChatController's "last n transactions" reply. */
+    private static Map<String, Object> transactionsReply(int n) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Map<String, Object> x = new LinkedHashMap<>();
+            x.put("transaction_date", Timestamp.valueOf(LocalDateTime.of(2026, 9, 30, 18, 0).minusHours(7L * i)));
+            x.put("amount", BigDecimal.valueOf((i % 3 == 0 ? 1 : -1) * (1999L + 37L * i), 2));
+            x.put("type", i % 3 == 0 ? "DEPOSIT" : "WITHDRAWAL");
+            x.put("description", i % 3 == 0 ? "Salary deposit" : "Card purchase " + (i % 7));
+            rows.add(x);
+        }
+        return Map.of("reply", "Here are the last " + n + " transactions.",
+                "data", Map.of("customerId", 42, "transactions", rows));
+    }
+
+    /** The entity graph GET /api/customers serializes. */
+    private static List<Customer> customers(int count, int accounts, int txPerAccount) {
+        List<Customer> out = new ArrayList<>();
+        int txId = 1;
+        for (int c = 1; c <= count; c++) {
+            Customer customer = new Customer();
+            customer.setId(c);
+            customer.setFullName("Customer " + c);
+            customer.setEmail("customer" + c + "@email.com");
+            customer.setPhone("555-" + (1000 + c));
+            List<Account> as = new ArrayList<>();
+            for (int a = 0; a < accounts; a++) {
+                Account account = new Account();
+                account.setId(c * 100 + a);
+                account.setType(a == 0 ? "CHECKING" : "SAVINGS");
+                account.setBalance(1500.0 + c * 10 + a);
+                account.setCustomer(customer);
+                List<Transaction> ts = new ArrayList<>();
+                for (int t = 0; t < txPerAccount; t++, txId++) {
+                    Transaction tx = new Transaction();
+                    tx.setId(txId);
+                    tx.setType(t % 3 == 0 ? "DEPOSIT" : "WITHDRAWAL");
+                    tx.setAmount(t % 3 == 0 ? 2000.0 : -(12.5 + t));
+                    tx.setDescription(t % 3 == 0 ? "Salary deposit" : "ATM withdrawal");
+                    tx.setTimestamp(LocalDateTime.of(2026, 9, 1, 9, 0).plusHours(13L * t));
+                    tx.setAccount(account);
+                    ts.add(tx);
+                }
+                account.setTransactions(ts);
+                as.add(account);
+            }
+            customer.setAccounts(as);
+            Loan loan = new Loan();
+            loan.setId(c);
+            loan.setAmount(15000.0);
+            loan.setStatus("ACTIVE");
+            loan.setCustomer(customer);
+            customer.setLoans(List.of(loan));
+            out.add(customer);
+        }
+        return out;
+    }
+
+    @Test
+    void binaryEncodingsCarryTheSameDocument() throws IOException {
+        for (Object payload : List.of(transactionsReply(20), customers(5, 2, 10))) {
+            JsonNode expected = JSON.readTree(JSON.writeValueAsBytes(payload));
+            for (String format : List.of("cbor", "smile")) {
+                ObjectMapper mapper = FORMATS.get(format);
+                byte[] encoded = mapper.writeValueAsBytes(payload);
+                // printed, since number node types differ (CBOR keeps BigDecimal, JSON parses double)
+                assertThat(mapper.readTree(encoded).toString()).as(format).isEqualTo(expected.toString());
+                assertThat(encoded.length).as(format).isLessThan(JSON.writeValueAsBytes(payload).length);
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "bench", matches = "true")
+    void benchmark() {
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        payloads.put("chat reply, 5 transactions", transactionsReply(5));
+        payloads.put("chat reply, 50 transactions", transactionsReply(50));
+        payloads.put("/api/customers, 3 customers", customers(3, 2, 5));
+        payloads.put("/api/customers, 200 customers", customers(200, 2, 20));
+
+        for (int round = 0; round < 3; round++) {   // the first rounds are warmup
+            System.out.printf("round %d%n", round);
+            System.out.printf("  %-30s %-6s %10s %10s %12s %12s%n", "payload", "format", "bytes", "gzip", "encode us", "+gzip us");
+            payloads.forEach((name, payload) -> {
+                for (String format : ORDER) {
+                    ObjectMapper mapper = FORMATS.get(format);
+                    byte[] encoded = encode(mapper, payload);
+                    int iterations = Math.max(20, 2_000_000 / encoded.length);
+                    long encodeNs = time(iterations, () -> encode(mapper, payload));
+                    long gzipNs = time(iterations, () -> gzip(encode(mapper, payload)));
+                    System.out.printf("  %-30s %-6s %,10d %,10d %,12.1f %,12.1f%n", name, format, encoded.length,
+                            gzip(encoded).length, encodeNs / 1000.0, gzipNs / 1000.0);
+                }
+            });
+        }
+    }
+
+    private static byte[] encode(ObjectMapper mapper, Object payload) {
+        try {
+            return mapper.writeValueAsBytes(payload);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    // mean ns per call
+    private static long time(int iterations, Runnable work) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) work.run();
+        return (System.nanoTime() - start) / iterations;
+    }
+}
@@ -0,0 +1,71 @@
+package com.bank.Bank_ChatBot.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.bank.Bank_ChatBot.admission.AdaptiveBulkhead;
+import com.bank.Bank_ChatBot.entities.Customer;
+import com.bank.Bank_ChatBot.repositories.AccountRepository;
+import com.bank.Bank_ChatBot.repositories.CustomerRepository;
+import com.bank.Bank_ChatBot.repositories.LoanRepository;
+import com.bank.Bank_ChatBot.repositories.TransactionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ChatServiceTests {
+
+    private final AdaptiveBulkhead db = new AdaptiveBulkhead("db", 4, 1, 4, 0, 0, 2.0, 5, 0.9, new SimpleMeterRegistry());
+
+    /** A repository whose findAll returns {@code rows} and whose every other method fails. */
+    @SuppressWarnings("unchecked")
+    private static <R> R repository(Class<R> type, List<?> rows) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals("findAll")) return rows;
+            throw new IllegalStateException("db down");
+        });
+    }
+
+    private ChatService service(List<Customer> customers) {
+        return new ChatService(repository(CustomerRepository.class, customers), repository(AccountRepository.class, List.of()),
+                repository(TransactionRepository.class, List.of()), repository(LoanRepository.class, List.of()), db);
+    }
+
+    private static Customer customer(int id) {
+        Customer c = new Customer();
+        c.setId(id);
+        c.setFullName("Customer " + id);
+        c.setEmail(id + "@example.com");
+        return c;
+    }
+
+    @Test
+    void rowsAreWrittenAfterTheDbSlotIsReleased() {
+        ChatService chat = service(List.of(customer(1), customer(2)));
+        List<Integer> inFlightWhileWriting = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        Appendable slowClient = new Appendable() {
+            @Override public Appendable append(CharSequence csq) { return append(csq, 0, csq.length()); }
+            @Override public Appendable append(char c) { return append(String.valueOf(c)); }
+            @Override public Appendable append(CharSequence csq, int start, int end) {
+                inFlightWhileWriting.add(db.getInFlight());
+                sb.append(csq, start, end);
+                return this;
+            }
+        };
+
+        chat.writeResponse("list customers", slowClient);
+        assertThat(sb.toString()).isEqualTo("Customers:\ncustomer 1: Customer 1 (1@example.com)\ncustomer 2: Customer 2 (2@example.com)");
+        assertThat(inFlightWhileWriting).isNotEmpty().containsOnly(0);
+    }
+
+    @Test
+    void failedLookupWritesOnlyTheErrorLine() {
+        assertThat(service(List.of()).getResponse("customer 7")).isEqualTo("Sorry — I hit an error.");
+        assertThat(service(List.of()).getResponse("list customers")).isEqualTo("No customers found.");
+    }
+}
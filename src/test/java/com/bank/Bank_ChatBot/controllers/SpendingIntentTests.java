@@ -0,0 +1,79 @@
+package com.bank.Bank_ChatBot.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.Bank_ChatBot.admission.AdaptiveBulkhead;
+import com.bank.Bank_ChatBot.analytics.SpendingAnalytics;
+import com.bank.Bank_ChatBot.controllers.ChatController.Resolved;
+import com.bank.Bank_ChatBot.query.QueryRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SpendingIntentTests {
+
+    private static String intent(String msg) {
+        Resolved r = ChatController.matchSpending(msg);
+        return r == null ? null : r.intent();
+    }
+
+    @Test
+    void picksTheAnalyticsIntent() {
+        assertThat(intent("spending by month for customer 3")).isEqualTo("SPENDING_BY_MONTH");
+        assertThat(intent("monthly expenses for id 3")).isEqualTo("SPENDING_BY_MONTH");
+        assertThat(intent("top 3 expenses this year for customer 3")).isEqualTo("TOP_SPENDING");
+        assertThat(intent("biggest purchases for customer id 3")).isEqualTo("TOP_SPENDING");
+        assertThat(intent("total deposits last month for customer 3")).isEqualTo("TYPE_TOTAL");
+        assertThat(intent("how much did customer 3 spend on groceries past week")).isEqualTo("SPENDING_TOTAL");
+    }
+
+    @Test
+    void slotsCarryCustomerTextAndClampedCount() {
+        Resolved r = ChatController.matchSpending("Top 99 expenses for customer 42");
+        assertThat(r.slots()).containsEntry("customer_id", 42)
+                .containsEntry("text", "Top 99 expenses for customer 42")
+                .containsEntry("n", 50);
+        assertThat(ChatController.matchSpending("top expenses for customer 42").slots()).doesNotContainKey("n");
+    }
+
+    @Test
+    void leavesOtherQuestionsAlone() {
+        assertThat(intent("how much did I spend last month")).isNull();   // no customer
+        assertThat(intent("last 5 transactions for customer 3")).isNull();
+        assertThat(intent("balance for id 3")).isNull();
+    }
+
+    /** Replies for a customer with one account and no transactions. */
+    private static Object reply(String msg) {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:spending-intent;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        jdbc.update("INSERT INTO accounts (account_id, customer_id, account_type, balance) VALUES (10, 3, 'CHECKING', 0)");
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        AdaptiveBulkhead db = new AdaptiveBulkhead("db", 4, 1, 4, 0, 0, 2.0, 5, 0.9, meters);
+        SpendingAnalytics analytics = new SpendingAnalytics(new QueryRegistry(jdbc, meters, new StandardEnvironment()), db, meters, 100, 1000);
+        Resolved r = ChatController.matchSpending(msg);
+        Map<String, Object> out = new ChatController(null, null, null, analytics).handleSpending(r.intent(), r.slots());
+        return out.get("reply");
+    }
+
+    @Test
+    void emptyMonthlySpendingSaysSo() {
+        assertThat(reply("spending by month for customer 3")).isEqualTo("No spending found for customer 3 in the last 6 months.");
+    }
+
+    @Test
+    void periodsLongerThanTheCapAreRefused() {
+        assertThat(reply("how much did customer 3 spend in the last 999 years"))
+                .isEqualTo("I can add up spending over at most 5 years. Please ask about a shorter period.");
+        assertThat(reply("how much did customer 3 spend in the last 5 years")).asString().startsWith("Customer 3 spent $0.00");
+    }
+}
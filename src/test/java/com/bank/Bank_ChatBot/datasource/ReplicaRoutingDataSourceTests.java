@@ -0,0 +1,131 @@
+package com.bank.Bank_ChatBot.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.Bank_ChatBot.config.ReadReplicaConfig;
+import com.bank.Bank_ChatBot.config.ReadReplicaConfig.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+
+/** Two (or three) in-memory H2 databases standing in for primary and replicas. */
+class ReplicaRoutingDataSourceTests {
+
+    private static DataSource h2(String name) {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        ds.setUser("sa");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(32))");
+        jdbc.execute("DELETE FROM whoami");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        return ds;
+    }
+
+    private static DataSource broken() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:tcp://localhost:1/nowhere");
+        return ds;
+    }
+
+    private static String whoami(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static String readOnly(JdbcTemplate jdbc) {
+        return ReadOnlyRouting.onReplica(() -> whoami(jdbc));
+    }
+
+    @Test
+    void readsGoToReplicaAndEverythingElseToPrimary() {
+        JdbcTemplate jdbc = new JdbcTemplate(new ReplicaRoutingDataSource(
+                h2("p1"), List.of(h2("r1")), 1000, 0));
+
+        assertThat(readOnly(jdbc)).isEqualTo("r1");
+        assertThat(whoami(jdbc)).isEqualTo("p1");
+    }
+
+    @Test
+    void roundRobinsAcrossReplicas() {
+        JdbcTemplate jdbc = new JdbcTemplate(new ReplicaRoutingDataSource(
+                h2("p2"), List.of(h2("r2a"), h2("r2b")), 1000, 0));
+
+        assertThat(List.of(readOnly(jdbc), readOnly(jdbc), readOnly(jdbc), readOnly(jdbc)))
+                .containsExactly("r2a", "r2b", "r2a", "r2b");
+    }
+
+    @Test
+    void failsOverToNextReplicaThenPrimary() {
+        JdbcTemplate oneDown = new JdbcTemplate(new ReplicaRoutingDataSource(
+                h2("p3"), List.of(broken(), h2("r3")), 60_000, 0));
+        assertThat(readOnly(oneDown)).isEqualTo("r3");
+        assertThat(readOnly(oneDown)).isEqualTo("r3");
+
+        JdbcTemplate allDown = new JdbcTemplate(new ReplicaRoutingDataSource(
+                h2("p4"), List.of(broken()), 60_000, 0));
+        assertThat(readOnly(allDown)).isEqualTo("p4");
+    }
+
+    @Test
+    void committedWriteKeepsReadsOnPrimaryInsideWindow() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(h2("p5"), List.of(h2("r5")), 1000, 60_000);
+        // wrapped as in ReadReplicaConfig: the real connection is fetched once the transaction is set up
+        DataSource lazy = new LazyConnectionDataSourceProxy(routing);
+        JdbcTemplate jdbc = new JdbcTemplate(lazy);
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(lazy));
+
+        // primary reads outside a transaction don't pin anything
+        assertThat(whoami(jdbc)).isEqualTo("p5");
+        assertThat(readOnly(jdbc)).isEqualTo("r5");
+
+        // nor does a rolled-back write
+        tx.executeWithoutResult(s -> {
+            jdbc.update("UPDATE whoami SET name = 'p5-rolled-back'");
+            s.setRollbackOnly();
+        });
+        assertThat(readOnly(jdbc)).isEqualTo("r5");
+
+        tx.executeWithoutResult(s -> jdbc.update("UPDATE whoami SET name = 'p5-written'"));
+        assertThat(readOnly(jdbc)).isEqualTo("p5-written");
+    }
+
+    @Test
+    void explicitWriteOutsideTransactionOpensTheWindow() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(h2("p6"), List.of(h2("r6")), 1000, 60_000);
+        JdbcTemplate jdbc = new JdbcTemplate(routing);
+
+        jdbc.update("UPDATE whoami SET name = 'p6-written'");
+        assertThat(readOnly(jdbc)).isEqualTo("r6");
+        routing.recordWrite();
+        assertThat(readOnly(jdbc)).isEqualTo("p6-written");
+    }
+
+    @Test
+    void unreachableReplicaPoolFailsOverWithinItsConnectionTimeout() {
+        HikariDataSource pool = ReadReplicaConfig.replicaPool(new ReplicaProperties(
+                "jdbc:h2:tcp://localhost:1/nowhere", "sa", "", "org.h2.Driver"), "replica-test", 300, -1);
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(new ReplicaRoutingDataSource(h2("p7"), List.of(pool), 60_000, 0));
+            long start = System.nanoTime();
+            assertThat(readOnly(jdbc)).isEqualTo("p7");
+            // Hikari's default would wait 30 s here
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+            // and the pool is now skipped for the cooldown
+            start = System.nanoTime();
+            assertThat(readOnly(jdbc)).isEqualTo("p7");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(200));
+        } finally {
+            pool.close();
+        }
+    }
+}
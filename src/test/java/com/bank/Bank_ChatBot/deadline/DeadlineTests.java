@@ -0,0 +1,115 @@
+package com.bank.Bank_ChatBot.deadline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.bank.Bank_ChatBot.admission.AdaptiveBulkhead;
+import com.bank.Bank_ChatBot.admission.BulkheadFullException;
+import com.bank.Bank_ChatBot.service.BatchLoader;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DeadlineTests {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService dispatcher = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        timer.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    @Test
+    void queryTimeoutIsCutToTheTimeLeftAndRoundedUp() {
+        assertThat(Deadline.queryTimeoutSeconds(5, "db")).isEqualTo(5);   // no deadline
+        assertThat(Deadline.within(Deadline.afterMillis(1_200), () -> Deadline.queryTimeoutSeconds(5, "db"))).isEqualTo(2);
+        assertThat(Deadline.within(Deadline.afterMillis(30_000), () -> Deadline.queryTimeoutSeconds(5, "db"))).isEqualTo(5);
+        assertThat(Deadline.within(Deadline.afterMillis(300), () -> Deadline.queryTimeoutSeconds(0, "db"))).isEqualTo(1);
+
+        Deadline spent = Deadline.afterMillis(0);
+        assertThatThrownBy(() -> Deadline.within(spent, () -> Deadline.queryTimeoutSeconds(5, "db")))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(spent.cancelledAt()).isEqualTo("db");
+    }
+
+    @Test
+    void batchCallerGivesUpAtItsDeadlineWhileTheBatchFinishesForOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BatchLoader<Integer, String> loader = new BatchLoader<>("slow", keys -> {
+            await(release);
+            Map<Integer, String> out = new HashMap<>();
+            keys.forEach(k -> out.put(k, "v" + k));
+            return out;
+        }, "missing", timer, dispatcher, 5, 100);
+
+        CompletableFuture<String> patient = CompletableFuture.supplyAsync(
+                () -> Deadline.within(Deadline.afterMillis(10_000), () -> loader.load(1)), dispatcher);
+        Deadline hurried = Deadline.afterMillis(100);
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> Deadline.within(hurried, () -> loader.load(2)))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(hurried.cancelledAt()).isEqualTo("batch.slow");
+
+        release.countDown();
+        assertThat(patient.get(5, TimeUnit.SECONDS)).isEqualTo("v1");
+    }
+
+    @Test
+    void batchWhoseCallersHaveAllGivenUpIsNotRun() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        BatchLoader<Integer, String> loader = new BatchLoader<>("skipped", keys -> {
+            calls.incrementAndGet();
+            return Map.of();
+        }, "missing", timer, dispatcher, 200, 100);
+
+        Deadline d = Deadline.afterMillis(20);
+        assertThatThrownBy(() -> Deadline.within(d, () -> loader.load(1))).isInstanceOf(DeadlineExceededException.class);
+        Thread.sleep(400);   // past the batch window
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void bulkheadQueueWaitStopsAtTheDeadline() throws Exception {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead("db", 1, 1, 1, 4, 5_000, 2.0, 5, 0.9, new SimpleMeterRegistry());
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> holder = CompletableFuture.supplyAsync(() -> bulkhead.execute(() -> {
+            busy.countDown();
+            await(release);
+            return null;
+        }), dispatcher);
+        busy.await();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> Deadline.within(Deadline.afterMillis(100), () -> bulkhead.execute(() -> "late")))
+                .isInstanceOf(DeadlineExceededException.class)
+                .isNotInstanceOf(BulkheadFullException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
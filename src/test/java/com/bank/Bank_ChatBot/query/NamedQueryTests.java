@@ -0,0 +1,106 @@
+package com.bank.Bank_ChatBot.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NamedQueryTests {
+
+    private JdbcTemplate jdbc;
+    private QueryRegistry queries;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:named-query;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("CREATE TABLE item (owner_id INT, seq INT)");
+        // owner n has items 1..n; owners past 8 only exist for the IN-list sizes
+        for (int owner = 9; owner <= 100; owner++) jdbc.update("INSERT INTO item VALUES (?, 1)", owner);
+        for (int owner = 1; owner <= 8; owner++) {
+            for (int seq = 1; seq <= owner; seq++) jdbc.update("INSERT INTO item VALUES (?, ?)", owner, seq);
+        }
+        queries = new QueryRegistry(jdbc, new SimpleMeterRegistry(), new StandardEnvironment());
+    }
+
+    private record Item(int owner, int seq) {}
+
+    /** Each row also reports the statement it came from: bound parameters, fetch size, timeout. */
+    private record Seen(int owner, int parameters, int fetchSize, int timeoutSeconds) {}
+
+    private NamedQuery<Seen> ownersIn(QueryRegistry registry) {
+        return registry.register("item.owners", """
+            SELECT owner_id FROM item WHERE owner_id IN (%s) AND seq = ? ORDER BY owner_id
+        """, (rs, i) -> {
+            PreparedStatement ps = (PreparedStatement) rs.getStatement();
+            return new Seen(rs.getInt(1), ps.getParameterMetaData().getParameterCount(), ps.getFetchSize(), ps.getQueryTimeout());
+        }, 50, 3);
+    }
+
+    @Test
+    void inListIsPaddedToAPowerOfTwoWithoutChangingTheRows() {
+        NamedQuery<Seen> owners = ownersIn(queries);
+        int[][] sizeToBucket = {{1, 1}, {2, 2}, {3, 4}, {5, 8}, {100, 128}};
+        for (int[] c : sizeToBucket) {
+            List<Integer> ids = IntStream.rangeClosed(1, c[0]).boxed().toList();
+            List<Seen> rows = owners.listIn(ids, 1);
+            // padded with the last id repeated: same rows, each once
+            assertThat(rows).extracting(Seen::owner).as("size %d", c[0]).containsExactlyElementsOf(ids);
+            assertThat(rows.get(0).parameters()).as("size %d", c[0]).isEqualTo(c[1] + 1);   // + the trailing seq
+            assertThat(NamedQuery.bucket(c[0])).isEqualTo(c[1]);
+        }
+        // duplicates in the caller's list are harmless too
+        assertThat(owners.listIn(List.of(4, 4, 2), 3)).extracting(Seen::owner).containsExactly(4);
+        assertThat(owners.listIn(List.of(), 1)).isEmpty();
+    }
+
+    @Test
+    void fetchSizeAndTimeoutComeFromCodeUnlessOverriddenPerQuery() {
+        Seen defaults = ownersIn(queries).listIn(List.of(1), 1).get(0);
+        assertThat(defaults.fetchSize()).isEqualTo(50);
+        assertThat(defaults.timeoutSeconds()).isEqualTo(3);
+
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("bank.query.item.owners.fetch-size", "7")
+                .withProperty("bank.query.item.owners.timeout-seconds", "11");
+        NamedQuery<Seen> overridden = ownersIn(new QueryRegistry(jdbc, new SimpleMeterRegistry(), env));
+        assertThat(overridden.getFetchSize()).isEqualTo(7);
+        assertThat(overridden.getTimeoutSeconds()).isEqualTo(11);
+        Seen seen = overridden.listIn(List.of(1), 1).get(0);
+        assertThat(seen.fetchSize()).isEqualTo(7);
+        assertThat(seen.timeoutSeconds()).isEqualTo(11);
+    }
+
+    @Test
+    void unionRunsAPerKeyLimitAndPaddingBranchesMatchNothing() {
+        NamedQuery<Item> newest = queries.register("item.newest", """
+            SELECT owner_id, seq FROM item WHERE owner_id = ? ORDER BY seq DESC LIMIT ?
+        """, (rs, i) -> new Item(rs.getInt(1), rs.getInt(2)), 0, 0);
+
+        List<Item> rows = new ArrayList<>();
+        newest.forEachUnion(List.of(2, 5, 8), rows::add, 2);   // 3 keys -> 4 branches
+        assertThat(rows).containsExactlyInAnyOrder(
+                new Item(2, 2), new Item(2, 1), new Item(5, 5), new Item(5, 4), new Item(8, 8), new Item(8, 7));
+
+        rows.clear();
+        newest.forEachUnion(IntStream.rangeClosed(1, 5).boxed().toList(), rows::add, 1);   // 5 keys -> 8 branches
+        assertThat(rows).extracting(Item::seq).containsExactlyInAnyOrder(1, 2, 3, 4, 5);
+
+        rows.clear();
+        newest.forEachUnion(List.of(), rows::add, 1);
+        assertThat(rows).isEmpty();
+    }
+}
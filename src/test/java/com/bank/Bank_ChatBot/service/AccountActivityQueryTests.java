@@ -0,0 +1,155 @@
+package com.bank.Bank_ChatBot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.bank.Bank_ChatBot.admission.AdaptiveBulkhead;
+import com.bank.Bank_ChatBot.query.QueryRegistry;
+import com.bank.Bank_ChatBot.service.BankingService.AccountActivity;
+import com.bank.Bank_ChatBot.service.BankingService.TransactionRow;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The accounts intent's single ROW_NUMBER() query against the N+1 it replaces (list accounts,
+ * then one "newest K" query per account). The equivalence check always runs; the benchmark
+ * only with {@code mvn test -Dtest=AccountActivityQueryTests -Dbench=true}.
+ *
+ * In-process H2 has no round trip, which flatters the N+1: each of its queries is an index
+ * range read, while the window ranks every transaction of the customer. The benchmark therefore
+ * also projects both with a per-query network round trip (-Dbench.rtt-us, default 300).
+ */
+class AccountActivityQueryTests {
+
+    private static final int CUSTOMERS = 200;
+    private static final int ACCOUNTS_PER_CUSTOMER = 8;
+    private static final int TX_PER_ACCOUNT = 200;
+    private static final int K = 5;
+
+    private static JdbcTemplate jdbc;
+    private static BankingService banking;
+
+    @BeforeAll
+    static void seed() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:account-activity;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+
+        long now = System.currentTimeMillis();
+        List<Object[]> accounts = new ArrayList<>();
+        List<Object[]> txs = new ArrayList<>();
+        int txId = 1;
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            for (int a = 0; a < ACCOUNTS_PER_CUSTOMER; a++) {
+                int accountId = c * 100 + a;
+                accounts.add(new Object[]{accountId, c, a % 2 == 0 ? "CHECKING" : "SAVINGS", BigDecimal.valueOf(accountId, 2)});
+                if (a == 7) continue;   // an account without transactions must still be listed
+                for (int t = 0; t < TX_PER_ACCOUNT; t++, txId++) {
+                    txs.add(new Object[]{txId, accountId, new Timestamp(now - (long) t * 60_000 - (txId % 7) * 1000L),
+                            BigDecimal.valueOf(txId, 2), t % 3 == 0 ? "WITHDRAWAL" : "DEPOSIT", "tx " + txId});
+                }
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO accounts (account_id, customer_id, account_type, balance) VALUES (?, ?, ?, ?)", accounts);
+        jdbc.batchUpdate("INSERT INTO transactions (transaction_id, account_id, transaction_date, amount, type, description) VALUES (?, ?, ?, ?, ?, ?)", txs);
+
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        QueryRegistry queries = new QueryRegistry(jdbc, meters, new StandardEnvironment());
+        AdaptiveBulkhead db = new AdaptiveBulkhead("db", 64, 1, 64, 64, 1000, 2.0, 50, 0.9, meters);
+        CustomerSummaryProjection summaries = new CustomerSummaryProjection(jdbc,
+                new DataSourceTransactionManager(jdbc.getDataSource()), queries, false, false);
+        banking = new BankingService(queries, db, summaries, 0, 100);   // window 0: one query per call
+    }
+
+    @AfterAll
+    static void close() {
+        banking.shutdown();
+    }
+
+    /** The N+1 shape: one query for the accounts, one per account for its newest K. */
+    private static List<AccountActivity> perAccount(int customerId, int k) {
+        List<AccountActivity> out = new ArrayList<>();
+        jdbc.query("SELECT account_id, account_type, balance FROM accounts WHERE customer_id = ? ORDER BY account_id", rs -> {
+            out.add(new AccountActivity(rs.getInt(1), rs.getString(2), rs.getBigDecimal(3), new ArrayList<>()));
+        }, customerId);
+        for (AccountActivity a : out) {
+            jdbc.query("""
+                SELECT transaction_date, amount, type, description
+                FROM transactions
+                WHERE account_id = ?
+                ORDER BY transaction_date DESC, transaction_id DESC
+                LIMIT ?
+            """, rs -> {
+                a.recentTransactions().add(new TransactionRow(customerId, rs.getTimestamp(1), rs.getBigDecimal(2),
+                        rs.getString(3), rs.getString(4)));
+            }, a.accountId(), k);
+        }
+        return out;
+    }
+
+    @Test
+    void windowQueryMatchesPerAccountQueries() {
+        for (int c : new int[]{1, 17, CUSTOMERS}) {
+            List<AccountActivity> windowed = banking.getAccountActivity(c, K);
+            assertThat(windowed).hasSize(ACCOUNTS_PER_CUSTOMER);
+            assertThat(windowed).isEqualTo(perAccount(c, K));
+            assertThat(windowed.get(7).recentTransactions()).isEmpty();
+        }
+        assertThat(banking.getAccountActivity(CUSTOMERS + 1, K)).isEmpty();
+    }
+
+    @Test
+    void recentTransactionsMatchTheSingleCustomerQuery() {
+        for (int c : new int[]{1, 17, CUSTOMERS}) {
+            List<Timestamp> expected = jdbc.queryForList("""
+                SELECT t.transaction_date
+                FROM transactions t
+                JOIN accounts a ON a.account_id = t.account_id
+                WHERE a.customer_id = ?
+                ORDER BY t.transaction_date DESC
+                LIMIT ?
+            """, Timestamp.class, c, 10);
+            assertThat(banking.getTransactionsByCustomerId(c, 10)).extracting(TransactionRow::transactionDate)
+                    .containsExactlyElementsOf(expected);
+        }
+        assertThat(banking.getTransactionsByCustomerId(CUSTOMERS + 1, 10)).isEmpty();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "bench", matches = "true")
+    void benchmark() {
+        long rtt = Long.getLong("bench.rtt-us", 300);
+        int queries = ACCOUNTS_PER_CUSTOMER + 1;
+        for (int round = 0; round < 3; round++) {   // the first round is warmup
+            long window = time(c -> banking.getAccountActivity(c, K));
+            long nPlus1 = time(c -> perAccount(c, K));
+            System.out.printf("round %d in-process: window %,d us/customer (1 query), per-account %,d us/customer (%d queries)%n",
+                    round, window, nPlus1, queries);
+            System.out.printf("        +%d us RTT:  window %,d us, per-account %,d us  -> per-account/window x%.1f%n",
+                    rtt, window + rtt, nPlus1 + queries * rtt, (double) (nPlus1 + queries * rtt) / (window + rtt));
+        }
+    }
+
+    private static long time(java.util.function.IntConsumer lookup) {
+        int iterations = 2_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) lookup.accept(1 + i % CUSTOMERS);
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / iterations;
+    }
+}
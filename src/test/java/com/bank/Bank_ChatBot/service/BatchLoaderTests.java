@@ -0,0 +1,171 @@
+package com.bank.Bank_ChatBot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.bank.Bank_ChatBot.deadline.Deadline;
+import com.bank.Bank_ChatBot.deadline.DeadlineExceededException;
+
+/**
+ * Window and size flushes, dedup, deadline merging and failure paths, with a timer that only
+ * fires when the test says so and batches dispatched on the calling thread.
+ */
+class BatchLoaderTests {
+
+    /** Holds scheduled flushes until {@link #fire()}; rejects like a real timer once shut down. */
+    static final class ManualTimer extends ScheduledThreadPoolExecutor {
+        final List<Runnable> scheduled = new ArrayList<>();
+
+        ManualTimer() { super(0); }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+            if (isShutdown()) throw new RejectedExecutionException("timer is shut down");
+            scheduled.add(task);
+            return null;
+        }
+
+        void fire() {
+            List<Runnable> due = new ArrayList<>(scheduled);
+            scheduled.clear();
+            due.forEach(Runnable::run);
+        }
+    }
+
+    private final ManualTimer timer = new ManualTimer();
+    private final Executor direct = Runnable::run;
+    private final List<Set<Integer>> batches = new ArrayList<>();
+    private final List<Deadline> batchDeadlines = new ArrayList<>();
+
+    private BatchLoader<Integer, String> loader(int maxBatchSize) {
+        return new BatchLoader<>("test", keys -> {
+            batches.add(Set.copyOf(keys));
+            batchDeadlines.add(Deadline.current());
+            Map<Integer, String> out = new HashMap<>();
+            keys.stream().filter(k -> k > 0).forEach(k -> out.put(k, "v" + k));
+            return out;
+        }, "missing", timer, direct, 5, maxBatchSize);
+    }
+
+    @Test
+    void windowFlushResolvesAllPendingKeysWithOneCall() throws Exception {
+        BatchLoader<Integer, String> loader = loader(100);
+        CompletableFuture<String> one = loader.loadAsync(1);
+        CompletableFuture<String> two = loader.loadAsync(2);
+        CompletableFuture<String> absent = loader.loadAsync(-3);
+        assertThat(batches).isEmpty();
+        assertThat(timer.scheduled).hasSize(1);   // one flush per window, not per key
+
+        timer.fire();
+        assertThat(batches).containsExactly(Set.of(1, 2, -3));
+        assertThat(one.get()).isEqualTo("v1");
+        assertThat(two.get()).isEqualTo("v2");
+        assertThat(absent.get()).isEqualTo("missing");
+    }
+
+    @Test
+    void fullBatchIsDispatchedWithoutWaitingForTheWindow() throws Exception {
+        BatchLoader<Integer, String> loader = loader(2);
+        CompletableFuture<String> one = loader.loadAsync(1);
+        CompletableFuture<String> two = loader.loadAsync(2);
+        assertThat(batches).containsExactly(Set.of(1, 2));
+        assertThat(one.get()).isEqualTo("v1");
+        assertThat(two.get()).isEqualTo("v2");
+
+        timer.fire();   // the window flush finds nothing left
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    void identicalKeysInOneWindowShareAFuture() {
+        BatchLoader<Integer, String> loader = loader(2);
+        CompletableFuture<String> first = loader.loadAsync(7);
+        CompletableFuture<String> again = loader.loadAsync(7);
+        assertThat(again).isSameAs(first);
+        assertThat(batches).isEmpty();   // still one pending key, below the size limit
+
+        timer.fire();
+        assertThat(batches).containsExactly(Set.of(7));
+        assertThat(first.join()).isEqualTo("v7");
+    }
+
+    @Test
+    void batchRunsUnderTheLatestCallerDeadline() {
+        BatchLoader<Integer, String> loader = loader(100);
+        Deadline soon = Deadline.afterMillis(5_000);
+        Deadline later = Deadline.afterMillis(60_000);
+        Deadline.within(soon, () -> loader.loadAsync(1));
+        Deadline.within(later, () -> loader.loadAsync(2));
+        timer.fire();
+
+        // a caller without a deadline lifts it altogether
+        Deadline.within(later, () -> loader.loadAsync(3));
+        loader.loadAsync(4);
+        timer.fire();
+
+        assertThat(batchDeadlines).hasSize(2);
+        assertThat(batchDeadlines.get(0)).isSameAs(later);
+        assertThat(batchDeadlines.get(1)).isNull();
+    }
+
+    @Test
+    void callerGivesUpAtItsDeadlineWhileTheBatchCarriesOn() throws Exception {
+        BatchLoader<Integer, String> loader = loader(100);
+        CompletableFuture<String> patient = loader.loadAsync(2);
+        Deadline hurried = Deadline.afterMillis(20);
+        assertThatThrownBy(() -> Deadline.within(hurried, () -> loader.load(1)))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(hurried.cancelledAt()).isEqualTo("batch.test");
+
+        timer.fire();
+        assertThat(batches).containsExactly(Set.of(1, 2));
+        assertThat(patient.get()).isEqualTo("v2");
+    }
+
+    @Test
+    void batchFailureReachesEveryCaller() {
+        IllegalStateException boom = new IllegalStateException("db down");
+        BatchLoader<Integer, String> loader = new BatchLoader<>("failing", keys -> { throw boom; },
+                "missing", timer, direct, 5, 100);
+        CompletableFuture<String> one = loader.loadAsync(1);
+        CompletableFuture<String> two = loader.loadAsync(2);
+        timer.fire();
+
+        for (CompletableFuture<String> f : List.of(one, two)) {
+            assertThatThrownBy(f::get).isInstanceOf(ExecutionException.class).hasCause(boom);
+        }
+        // the blocking form rethrows the batch failure itself (size 1: dispatched on this thread)
+        BatchLoader<Integer, String> single = new BatchLoader<>("failing", keys -> { throw boom; },
+                "missing", timer, direct, 5, 1);
+        assertThatThrownBy(() -> single.load(3)).isSameAs(boom);
+    }
+
+    @Test
+    void lookupsAfterShutdownFailInsteadOfHanging() {
+        BatchLoader<Integer, String> loader = loader(100);
+        timer.shutdown();
+        CompletableFuture<String> late = loader.loadAsync(1);
+        assertThat(late).isCompletedExceptionally();
+        assertThatThrownBy(late::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> loader.load(2)).isInstanceOf(RejectedExecutionException.class);
+
+        BatchLoader<Integer, String> noDispatcher = new BatchLoader<>("closed", keys -> Map.of(), "missing",
+                new ManualTimer(), task -> { throw new RejectedExecutionException("dispatcher is shut down"); }, 5, 1);
+        assertThatThrownBy(() -> noDispatcher.load(1)).isInstanceOf(RejectedExecutionException.class);
+    }
+}
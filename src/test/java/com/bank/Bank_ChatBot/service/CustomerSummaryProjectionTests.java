@@ -0,0 +1,131 @@
+package com.bank.Bank_ChatBot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.bank.Bank_ChatBot.entities.Account;
+import com.bank.Bank_ChatBot.entities.Customer;
+import com.bank.Bank_ChatBot.query.QueryRegistry;
+import com.bank.Bank_ChatBot.service.CustomerSummaryProjection.CustomerSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CustomerSummaryProjectionTests {
+
+    private JdbcTemplate jdbc;
+    private CustomerSummaryProjection summaries;
+    private final List<Integer> refreshed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:summary;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        jdbc.update("INSERT INTO customers (customer_id, full_name) VALUES (1, 'One'), (2, 'Two')");
+        summaries = new CustomerSummaryProjection(jdbc, new DataSourceTransactionManager(ds),
+                new QueryRegistry(jdbc, new SimpleMeterRegistry(), new StandardEnvironment()), true, false) {
+            @Override
+            public void refreshAfterCommit(Integer customerId) {
+                refreshed.add(customerId);
+            }
+        };
+        summaries.init();
+    }
+
+    private BigDecimal total(int customerId) {
+        return summaries.find(customerId).map(CustomerSummary::totalBalance).orElse(null);
+    }
+
+    @Test
+    void concurrentRefreshesEndOnTheNewestState() throws Exception {
+        jdbc.update("INSERT INTO accounts (account_id, customer_id, account_type, balance) VALUES (10, 1, 'CHECKING', 0)");
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 1; round <= 20; round++) {
+                jdbc.update("DELETE FROM customer_summary");   // every round races on the first insert too
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<?>> done = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int amount = round * 100 + t;
+                    done.add(pool.submit(() -> {
+                        go.await();
+                        jdbc.update("UPDATE accounts SET balance = ? WHERE account_id = 10", amount);
+                        summaries.refresh(1);
+                        return null;
+                    }));
+                }
+                go.countDown();
+                for (Future<?> f : done) f.get();
+                BigDecimal balance = jdbc.queryForObject("SELECT balance FROM accounts WHERE account_id = 10", BigDecimal.class);
+                assertThat(total(1)).as("round %d", round).isEqualByComparingTo(balance);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rebuildCoversEveryChunkAndDropsDeletedCustomers() {
+        List<Object[]> customers = new ArrayList<>();
+        List<Object[]> accounts = new ArrayList<>();
+        for (int c = 3; c <= 1_200; c++) {   // spans three rebuild chunks
+            customers.add(new Object[]{c, "Customer " + c});
+            accounts.add(new Object[]{c, c, "SAVINGS", BigDecimal.valueOf(c)});
+        }
+        jdbc.batchUpdate("INSERT INTO customers (customer_id, full_name) VALUES (?, ?)", customers);
+        jdbc.batchUpdate("INSERT INTO accounts (account_id, customer_id, account_type, balance) VALUES (?, ?, ?, ?)", accounts);
+        summaries.rebuildAll();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM customer_summary", Integer.class)).isEqualTo(1_200);
+        assertThat(total(1_200)).isEqualByComparingTo("1200");
+        assertThat(total(1)).isEqualByComparingTo("0");
+
+        jdbc.update("DELETE FROM accounts WHERE customer_id = 600");
+        jdbc.update("DELETE FROM customers WHERE customer_id = 600");
+        summaries.rebuildAll();
+        assertThat(summaries.find(600)).isEmpty();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM customer_summary", Integer.class)).isEqualTo(1_199);
+    }
+
+    @Test
+    void reassignedAccountRefreshesBothOwners() {
+        CustomerSummaryListener listener = new CustomerSummaryListener(
+                new StaticListableBeanFactory(Map.of("summaries", summaries)).getBeanProvider(CustomerSummaryProjection.class));
+        Account account = new Account();
+        account.setCustomer(customer(1));
+        listener.onLoad(account);
+
+        account.setCustomer(customer(2));
+        listener.onWrite(account);
+        assertThat(refreshed).containsExactly(1, 2);
+
+        // the next write only concerns the new owner
+        refreshed.clear();
+        listener.onWrite(account);
+        assertThat(refreshed).containsExactly(2);
+    }
+
+    private static Customer customer(int id) {
+        Customer c = new Customer();
+        c.setId(id);
+        return c;
+    }
+}
@@ -0,0 +1,174 @@
+package com.bank.Bank_ChatBot.statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.Bank_ChatBot.query.QueryRegistry;
+import com.bank.Bank_ChatBot.statement.StatementReport.State;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 25 customer ids (13 missing, 7 without accounts), two accounts each, transactions in
+ * August, September and October 2026; statements for September in ranges of 10 ids.
+ */
+class StatementJobTests {
+
+    private static final YearMonth MONTH = YearMonth.of(2026, 9);
+
+    private static JdbcTemplate jdbc;
+    private static int septemberTransactions;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void seed() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:statements;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+
+        List<Object[]> customers = new ArrayList<>();
+        List<Object[]> accounts = new ArrayList<>();
+        List<Object[]> txs = new ArrayList<>();
+        int txId = 1;
+        for (int c = 1; c <= 25; c++) {
+            if (c == 13) continue;
+            customers.add(new Object[]{c, "Customer " + c, "c" + c + "@example.com"});
+            if (c == 7) continue;
+            for (int a = 0; a < 2; a++) {
+                int accountId = c * 10 + a;
+                accounts.add(new Object[]{accountId, c, a == 0 ? "CHECKING" : "SAVINGS", new BigDecimal("1000.00")});
+                if (c == 5 && a == 1) continue;   // an account without transactions
+                for (int day = 1; day <= 90; day += 3, txId++) {
+                    LocalDateTime at = LocalDateTime.of(2026, 8, 1, 9, 30).plusDays(day - 1).plusMinutes(txId % 7);
+                    BigDecimal amount = BigDecimal.valueOf((txId % 2 == 0 ? -1 : 1) * (500L + txId), 2);
+                    txs.add(new Object[]{txId, accountId, Timestamp.valueOf(at), amount,
+                            amount.signum() < 0 ? "WITHDRAWAL" : "DEPOSIT", "tx " + txId});
+                    if (YearMonth.from(at).equals(MONTH)) septemberTransactions++;
+                }
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO customers (customer_id, full_name, email) VALUES (?, ?, ?)", customers);
+        jdbc.batchUpdate("INSERT INTO accounts (account_id, customer_id, account_type, balance) VALUES (?, ?, ?, ?)", accounts);
+        jdbc.batchUpdate("INSERT INTO transactions (transaction_id, account_id, transaction_date, amount, type, description) VALUES (?, ?, ?, ?, ?, ?)", txs);
+        jdbc.update("INSERT INTO loans (loan_id, customer_id, amount, status) VALUES (1, 3, 15000.00, 'ACTIVE')");
+    }
+
+    private StatementJob job(int rangeSize) {
+        QueryRegistry queries = new QueryRegistry(jdbc, new SimpleMeterRegistry(), new StandardEnvironment());
+        return new StatementJob(queries, dir.toString(), 3, rangeSize, 1000);
+    }
+
+    @Test
+    void writesEveryCustomerWithBalancesThatAddUp() throws IOException {
+        StatementReport r = job(10).run(MONTH);
+
+        assertThat(r.state()).isEqualTo(State.COMPLETED);
+        assertThat(r.ranges()).isEqualTo(3);
+        assertThat(r.completed()).isEqualTo(3);
+        assertThat(r.customers()).isEqualTo(24);
+        assertThat(r.transactions()).isEqualTo(septemberTransactions);
+        assertThat(files()).containsExactly("customers-1-10.txt", "customers-11-20.txt", "customers-21-30.txt", "job.properties");
+
+        String first = read("customers-1-10.txt");
+        assertThat(count(first, "STATEMENT 2026-09-01 .. 2026-09-30")).isEqualTo(10);
+        assertThat(count(read("customers-11-20.txt"), "STATEMENT ")).isEqualTo(9);   // no customer 13
+        assertThat(first).contains("Customer 7  Customer 7  c7@example.com\nNo accounts\n");
+        assertThat(first).contains("Account 51  SAVINGS\n  Opening balance  1000.00\n  No transactions\n  Closing balance  1000.00\n");
+        assertThat(first).contains("Loans\n  Loan 1  ACTIVE  15000.00\n");
+
+        // opening + the month's transactions = closing, for every account
+        for (String section : first.split("Account ")) {
+            if (!section.contains("Opening balance")) continue;
+            BigDecimal opening = amountAfter(section, "Opening balance  ");
+            BigDecimal closing = amountAfter(section, "Closing balance  ");
+            BigDecimal sum = BigDecimal.ZERO.setScale(2);
+            for (String line : section.split("\n")) {
+                if (!line.startsWith("  2026-")) continue;
+                sum = sum.add(new BigDecimal(line.split("  ")[3].trim()));
+                assertThat(line).startsWith("  2026-09-");
+            }
+            assertThat(opening.add(sum)).as(section).isEqualByComparingTo(closing);
+        }
+        // customer 1, account 10: balance 1000 less everything dated October or later
+        BigDecimal october = jdbc.queryForObject(
+                "SELECT SUM(amount) FROM transactions WHERE account_id = 10 AND transaction_date >= TIMESTAMP '2026-10-01 00:00:00'",
+                BigDecimal.class);
+        assertThat(amountAfter(first.substring(first.indexOf("Account 10 ")), "Closing balance  "))
+                .isEqualByComparingTo(new BigDecimal("1000.00").subtract(october));
+    }
+
+    @Test
+    void restartSkipsRangesFromTheCheckpoint() throws IOException {
+        assertThat(job(10).run(MONTH).state()).isEqualTo(State.COMPLETED);
+        String middle = read("customers-11-20.txt");
+        Files.delete(dir.resolve("2026-09/customers-11-20.txt"));
+        Files.writeString(dir.resolve("2026-09/customers-21-30.txt.part"), "torn");
+
+        StatementReport again = job(10).run(MONTH);
+
+        assertThat(again.state()).isEqualTo(State.COMPLETED);
+        assertThat(again.skipped()).isEqualTo(2);
+        assertThat(again.completed()).isEqualTo(1);
+        assertThat(again.customers()).isEqualTo(9);
+        assertThat(read("customers-11-20.txt")).isEqualTo(middle);
+        assertThat(files()).doesNotContain("customers-21-30.txt.part");
+
+        // a different layout would mix ranges: refused
+        StatementReport resized = job(5).run(MONTH);
+        assertThat(resized.state()).isEqualTo(State.FAILED);
+        assertThat(resized.errors()).anyMatch(e -> e.contains("range-size 10"));
+    }
+
+    @Test
+    void refusesMonthsThatHaveNotEnded() {
+        StatementJob job = job(10);
+        assertThatThrownBy(() -> job.run(YearMonth.now())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> job.start(YearMonth.now().plusMonths(1))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(Files.exists(dir.resolve(YearMonth.now().toString()))).isFalse();
+    }
+
+    // ----------------------------- helpers ------------------------------
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> s = Files.list(dir.resolve("2026-09"))) {
+            return s.map(p -> p.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private String read(String name) throws IOException {
+        return Files.readString(dir.resolve("2026-09").resolve(name));
+    }
+
+    private static int count(String text, String needle) {
+        int n = 0;
+        for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + 1)) n++;
+        return n;
+    }
+
+    private static BigDecimal amountAfter(String text, String label) {
+        int at = text.indexOf(label) + label.length();
+        return new BigDecimal(text.substring(at, text.indexOf('\n', at)));
+    }
+}
@@ -0,0 +1,74 @@
+package com.bank.Bank_ChatBot.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/** The hand-rolled formatting must print exactly what the String.format calls it replaced did. */
+class TextWriterTests {
+
+    private static String money(double v) {
+        StringBuilder sb = new StringBuilder();
+        new TextWriter(sb).money(v);
+        return sb.toString();
+    }
+
+    @Test
+    void moneyMatchesFormat() {
+        double[] fixed = {0, -0.0, 0.004, 0.005, 0.015, 1.005, 2.675, -0.001, -1.5, 99.995, 1500, 1e12 + 0.125,
+                1e15, -3.3e17, 123456789.125, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (double v : fixed) {
+            assertThat(money(v)).as("%s", v).isEqualTo(String.format("%.2f", v));
+        }
+        SplittableRandom rnd = new SplittableRandom(42);
+        for (int i = 0; i < 200_000; i++) {
+            double v = switch (i % 3) {
+                case 0 -> (rnd.nextLong(-10_000_000, 10_000_000)) / 1000.0;   // 3-decimal ties
+                case 1 -> rnd.nextDouble(-1e6, 1e6);
+                default -> rnd.nextInt(-100_000, 100_000) / 100.0 + 0.005;
+            };
+            assertThat(money(v)).as("%s", v).isEqualTo(String.format("%.2f", v));
+        }
+    }
+
+    @Test
+    void integersAndDates() {
+        StringWriter out = new StringWriter();   // non-StringBuilder target path
+        TextWriter w = new TextWriter(out);
+        w.integer(0).ch(' ').integer(-42).ch(' ').integer(Long.MAX_VALUE).ch(' ').integer(Long.MIN_VALUE)
+                .ch(' ').integer((Integer) null);
+        assertThat(out.toString()).isEqualTo("0 -42 9223372036854775807 -9223372036854775808 null");
+
+        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        for (LocalDateTime t : List.of(LocalDateTime.of(2025, 1, 2, 3, 4), LocalDateTime.of(999, 12, 31, 23, 59),
+                LocalDateTime.of(2024, 10, 10, 0, 0))) {
+            StringBuilder sb = new StringBuilder();
+            new TextWriter(sb).dateTime(t);
+            assertThat(sb.toString()).isEqualTo(fmt.format(t));
+        }
+    }
+
+    @Test
+    void streamedTableSizesFromSampleAndTruncatesLaterRows() {
+        List<TextTable.Column<String>> cols = List.of(new TextTable.Column<String>("name", TextWriter::text));
+        StringBuilder sb = new StringBuilder();
+        TextTable.render(sb, cols, List.of("ab", "abcdef").iterator(), 1, true);
+        assertThat(sb.toString()).isEqualTo("""
+                +------+
+                | name | \n\
+                +------+
+                | ab   | \n\
+                | abc… | \n\
+                +------+""");
+
+        assertThat(TextTable.table(List.of("a"), List.of(List.of("xyz1"), List.of("q"))))
+                .isEqualTo("+------+\n| a    | \n+------+\n| xyz1 | \n| q    | \n+------+");
+    }
+}
@@ -0,0 +1,144 @@
+package com.bank.Bank_ChatBot.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bank.Bank_ChatBot.warmup.WarmupCorpus.ChatCase;
+import com.bank.Bank_ChatBot.warmup.WarmupReport.State;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/** The runner against stand-in chat traffic, and the readiness it reports along the way. */
+class WarmupRunnerTests {
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void seed() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:warmup;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        jdbc.update("INSERT INTO customers (customer_id, full_name) VALUES (1, 'One'), (2, 'Two')");
+        jdbc.update("INSERT INTO accounts (account_id, customer_id, account_type, balance) VALUES (10, 1, 'CHECKING', 5)");
+    }
+
+    private static WarmupRunner runner(WarmupRunner.Rehearsal rehearsal, boolean enabled, int messages) {
+        return new WarmupRunner(rehearsal, new ObjectMapper(), jdbc, enabled, 10_000, messages, 2, 8, 0.05);
+    }
+
+    private static WarmupRunner.Rehearsal replying(CountDownLatch gate) {
+        return new WarmupRunner.Rehearsal() {
+            @Override
+            public Object chat(ChatCase c) throws Exception {
+                gate.await();
+                return Map.of("reply", "ok " + c.message());
+            }
+
+            @Override
+            public Object command(String command) {
+                return "ok";
+            }
+        };
+    }
+
+    private static WarmupReport awaitFinished(WarmupRunner runner) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!runner.finished() && System.nanoTime() < until) Thread.sleep(10);
+        assertThat(runner.finished()).isTrue();
+        return runner.report();
+    }
+
+    @Test
+    void outOfServiceUntilTheTrafficHasRunThenUp() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        WarmupRunner runner = runner(replying(gate), true, 200);
+        WarmupHealthIndicator health = new WarmupHealthIndicator(runner);
+
+        assertThat(health.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(health.health().getDetails()).containsEntry("state", State.PENDING);
+
+        runner.start();
+        assertThat(health.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(health.health().getDetails()).containsEntry("state", State.RUNNING);
+
+        gate.countDown();
+        WarmupReport r = awaitFinished(runner);
+        assertThat(r.state()).isEqualTo(State.COMPLETED);
+        assertThat(r.messages()).isEqualTo(200);
+        assertThat(r.errors()).isZero();
+        assertThat(r.steps().get("json").calls()).isEqualTo(200);
+        assertThat(r.steps().get("chat-service").firstError()).isNull();
+        assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void errorsOverTheThresholdEndDegradedWithTheFirstErrorKept() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        WarmupRunner runner = runner(new WarmupRunner.Rehearsal() {
+            @Override
+            public Object chat(ChatCase c) throws Exception {
+                // like a query against a column the schema lacks: one intent in five
+                if (calls.incrementAndGet() % 5 == 0) throw new SQLException("Column \"END_DATE\" not found");
+                return Map.of("reply", "ok");
+            }
+
+            @Override
+            public Object command(String command) {
+                return "ok";
+            }
+        }, true, 300);
+        WarmupHealthIndicator health = new WarmupHealthIndicator(runner);
+        runner.start();
+
+        WarmupReport r = awaitFinished(runner);
+        assertThat(r.state()).isEqualTo(State.DEGRADED);
+        assertThat(r.errors()).isEqualTo(60);
+        String firstError = r.steps().values().stream()
+                .map(WarmupReport.Step::firstError).filter(e -> e != null).findFirst().orElseThrow();
+        assertThat(firstError).contains("END_DATE");
+        // reported, but not a reason to stay out of service
+        assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(health.health().getDetails()).containsEntry("state", State.DEGRADED).containsEntry("errors", 60);
+    }
+
+    @Test
+    void givesUpAfterFiftyFailuresInARow() throws Exception {
+        WarmupRunner runner = runner(new WarmupRunner.Rehearsal() {
+            @Override
+            public Object chat(ChatCase c) {
+                throw new IllegalStateException("down");
+            }
+
+            @Override
+            public Object command(String command) {
+                throw new IllegalStateException("down");
+            }
+        }, true, 3000);
+        runner.start();
+
+        WarmupReport r = awaitFinished(runner);
+        assertThat(r.state()).isEqualTo(State.FAILED);
+        assertThat(r.messages()).isLessThan(3000);
+        assertThat(r.steps().get("chat-service").firstError()).contains("down");
+    }
+
+    @Test
+    void disabledIsReadyAtOnce() {
+        WarmupRunner runner = runner(replying(new CountDownLatch(0)), false, 100);
+        runner.start();
+        assertThat(runner.report().state()).isEqualTo(State.DISABLED);
+        assertThat(new WarmupHealthIndicator(runner).health().getStatus()).isEqualTo(Status.UP);
+    }
+}